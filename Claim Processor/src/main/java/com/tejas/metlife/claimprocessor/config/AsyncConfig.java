@@ -0,0 +1,105 @@
+package com.tejas.metlife.claimprocessor.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Background executors used for claim processing.
+ * Pools are bounded so a burst of submissions queues up (or is refused)
+ * instead of growing threads without limit. Scheduling drives the decision outbox relay.
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    @Bean(name = "claimPipelineExecutor")
+    public ThreadPoolTaskExecutor claimPipelineExecutor(
+            @Value("${claim.async.core-pool-size:8}") int corePoolSize,
+            @Value("${claim.async.max-pool-size:16}") int maxPoolSize,
+            @Value("${claim.async.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("claim-pipeline-");
+        // Full queue -> TaskRejectedException, surfaced to the client as 503
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Per-document upload + OCR fan-out inside a single claim.
+     * When saturated the submitting thread runs the task itself rather than failing the claim.
+     */
+    @Bean(name = "documentProcessingExecutor")
+    public ThreadPoolTaskExecutor documentProcessingExecutor(
+            @Value("${claim.documents.pool-size:16}") int poolSize,
+            @Value("${claim.documents.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("claim-document-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Fetches agent context (policy rules) in parallel with the rest of the agent call setup.
+     * When saturated the calling thread fetches it itself.
+     */
+    @Bean(name = "agentPrefetchExecutor")
+    public ThreadPoolTaskExecutor agentPrefetchExecutor(
+            @Value("${claim.agent.prefetch.pool-size:8}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 4);
+        executor.setThreadNamePrefix("agent-prefetch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes streamed agent progress onto PROCESSING claims off the model's callback thread.
+     * Progress is best effort - when saturated new writes are refused and the next update retries.
+     */
+    @Bean(name = "claimProgressExecutor")
+    public ThreadPoolTaskExecutor claimProgressExecutor(
+            @Value("${claim.agent.streaming.progress-pool-size:2}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(poolSize * 50);
+        executor.setThreadNamePrefix("claim-progress-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs individual pipeline stage attempts so they can be timed out.
+     * Per-stage concurrency limits bound how many of these threads are busy.
+     */
+    @Bean(name = "pipelineStageExecutor")
+    public ThreadPoolTaskExecutor pipelineStageExecutor(
+            @Value("${claim.pipeline.stage-pool-size:512}") int poolSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(0);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("claim-stage-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,110 @@
+package com.tejas.metlife.claimprocessor.config;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimDocumentType;
+import com.tejas.metlife.claimprocessor.repository.ClaimRepository;
+import com.tejas.metlife.claimprocessor.repository.PolicyRepository;
+import com.tejas.metlife.claimprocessor.service.BlobStorageService;
+import com.tejas.metlife.claimprocessor.service.ClaimAiAgentService;
+import com.tejas.metlife.claimprocessor.service.ClaimProgressRecorder;
+import com.tejas.metlife.claimprocessor.service.ClaimReferenceGenerator;
+import com.tejas.metlife.claimprocessor.service.DecisionOutboxService;
+import com.tejas.metlife.claimprocessor.service.coverage.CoverageRulesEngine;
+import com.tejas.metlife.claimprocessor.service.institution.InstitutionRegistry;
+import com.tejas.metlife.claimprocessor.service.ocr.OcrEngine;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimPipeline;
+import com.tejas.metlife.claimprocessor.service.pipeline.stage.AiAdjudicationStage;
+import com.tejas.metlife.claimprocessor.service.pipeline.stage.ConsistencyCheckStage;
+import com.tejas.metlife.claimprocessor.service.pipeline.stage.CoverageRulesStage;
+import com.tejas.metlife.claimprocessor.service.pipeline.stage.DocumentIngestStage;
+import com.tejas.metlife.claimprocessor.service.pipeline.stage.OcrStage;
+import com.tejas.metlife.claimprocessor.service.pipeline.stage.PersistStage;
+import com.tejas.metlife.claimprocessor.service.pipeline.stage.PolicyGateStage;
+import com.tejas.metlife.claimprocessor.service.prompt.PromptCompactor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Claim pipelines as stage configurations.
+ * Blob upload and OCR only need the uploaded file, so they run side by side.
+ */
+@Configuration
+public class ClaimPipelineConfig {
+
+    private static final List<ClaimDocumentType> ALL_DOCUMENTS = List.of(ClaimDocumentType.values());
+    private static final List<ClaimDocumentType> CLAIM_FORM_ONLY = List.of(ClaimDocumentType.CLAIM_FORM);
+    private static final List<ClaimDocumentType> SUPPORTING_DOCUMENTS = List.of(
+            ClaimDocumentType.DEATH_CERTIFICATE, ClaimDocumentType.DOCTOR_REPORT, ClaimDocumentType.POLICE_REPORT);
+
+    /**
+     * Full flow: policy gate, hard coverage rules, documents, consistency check, AI decision.
+     * With incremental OCR the claim form is read and checked first, and the supporting
+     * documents are only uploaded and OCR'd once the policy number and holder name match.
+     */
+    @Bean
+    public ClaimPipeline fullClaimPipeline(PolicyRepository policyRepository,
+                                           ClaimRepository claimRepository,
+                                           BlobStorageService blobStorageService,
+                                           OcrEngine ocrEngine,
+                                           CoverageRulesEngine coverageRulesEngine,
+                                           ClaimAiAgentService claimAiAgentService,
+                                           PromptCompactor promptCompactor,
+                                           InstitutionRegistry institutionRegistry,
+                                           ClaimProgressRecorder claimProgressRecorder,
+                                           ClaimReferenceGenerator claimReferenceGenerator,
+                                           DecisionOutboxService decisionOutboxService,
+                                           TransactionTemplate transactionTemplate,
+                                           @Qualifier("documentProcessingExecutor") TaskExecutor documentExecutor,
+                                           @Value("${claim.pipeline.incremental-ocr:true}") boolean incrementalOcr) {
+        ClaimPipeline.Builder builder = ClaimPipeline.builder(incrementalOcr ? "full-incremental" : "full")
+                .stage(new PolicyGateStage(policyRepository, claimRepository, transactionTemplate, true))
+                .stage(new CoverageRulesStage(coverageRulesEngine));
+
+        if (incrementalOcr) {
+            builder.parallel(new DocumentIngestStage(blobStorageService, documentExecutor, CLAIM_FORM_ONLY),
+                             new OcrStage(ocrEngine, documentExecutor, CLAIM_FORM_ONLY))
+                   .stage(new ConsistencyCheckStage())
+                   .parallel(new DocumentIngestStage(blobStorageService, documentExecutor, SUPPORTING_DOCUMENTS),
+                             new OcrStage(ocrEngine, documentExecutor, SUPPORTING_DOCUMENTS));
+        } else {
+            builder.parallel(new DocumentIngestStage(blobStorageService, documentExecutor, ALL_DOCUMENTS),
+                             new OcrStage(ocrEngine, documentExecutor, ALL_DOCUMENTS))
+                   .stage(new ConsistencyCheckStage());
+        }
+
+        return builder
+                .stage(new AiAdjudicationStage(claimAiAgentService, promptCompactor, claimProgressRecorder, true))
+                .finish(new PersistStage(claimRepository, claimReferenceGenerator, decisionOutboxService, transactionTemplate,
+                        institutionRegistry));
+    }
+
+    /** Pure AI flow: policy lookup, hard coverage rules, claim form only, AI decision on the document text alone. */
+    @Bean
+    public ClaimPipeline pureAiClaimPipeline(PolicyRepository policyRepository,
+                                             ClaimRepository claimRepository,
+                                             BlobStorageService blobStorageService,
+                                             OcrEngine ocrEngine,
+                                             CoverageRulesEngine coverageRulesEngine,
+                                             ClaimAiAgentService claimAiAgentService,
+                                             PromptCompactor promptCompactor,
+                                             InstitutionRegistry institutionRegistry,
+                                             ClaimProgressRecorder claimProgressRecorder,
+                                             ClaimReferenceGenerator claimReferenceGenerator,
+                                             DecisionOutboxService decisionOutboxService,
+                                             TransactionTemplate transactionTemplate,
+                                             @Qualifier("documentProcessingExecutor") TaskExecutor documentExecutor) {
+        return ClaimPipeline.builder("pure-ai")
+                .stage(new PolicyGateStage(policyRepository, claimRepository, transactionTemplate, false))
+                .stage(new CoverageRulesStage(coverageRulesEngine))
+                .parallel(new DocumentIngestStage(blobStorageService, documentExecutor, CLAIM_FORM_ONLY),
+                          new OcrStage(ocrEngine, documentExecutor, CLAIM_FORM_ONLY))
+                .stage(new AiAdjudicationStage(claimAiAgentService, promptCompactor, claimProgressRecorder, false))
+                .finish(new PersistStage(claimRepository, claimReferenceGenerator, decisionOutboxService, transactionTemplate,
+                        institutionRegistry));
+    }
+}
@@ -1,85 +1,106 @@
 package com.tejas.metlife.claimprocessor.controller;
 
 import com.tejas.metlife.claimprocessor.dto.ClaimResponse;
-import com.tejas.metlife.claimprocessor.service.PolicyRuleService;
+import com.tejas.metlife.claimprocessor.dto.ClaimSubmission;
+import com.tejas.metlife.claimprocessor.dto.ClaimSubmissionForm;
+import com.tejas.metlife.claimprocessor.service.ClaimSubmissionService;
+import com.tejas.metlife.claimprocessor.service.SubmissionInProgressException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/claim")
 public class ClaimController {
 
-    private final PolicyRuleService policyRuleService;
+    private final ClaimSubmissionService claimSubmissionService;
 
-    public ClaimController(PolicyRuleService policyRuleService) {
-        this.policyRuleService = policyRuleService;
+    public ClaimController(ClaimSubmissionService claimSubmissionService) {
+        this.claimSubmissionService = claimSubmissionService;
     }
 
+    /**
+     * Synchronous submission. Retries with the same Idempotency-Key header (or the same policy
+     * number and documents) return the original decision instead of re-running the pipeline.
+     */
     @PostMapping(value = "/submit", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ClaimResponse> submitClaim(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @ModelAttribute ClaimSubmissionForm form) throws IOException {
 
-        @RequestParam(required = false) String policyNumber,
-        @RequestParam(required = false) String policyHolderName,
-        @RequestParam(required = false) String causeOfDeath,
+        ClaimSubmission submission = bind(form);
 
-        @RequestParam(required = false) String deceasedFullName,
-        @RequestParam(required = false) String deceasedEmail,
-        @RequestParam(required = false) String deceasedMobile,
-        @RequestParam(required = false) String deceasedAddress,
+        // ---- Call Rule + AI Service ----
+        ClaimResponse resp = claimSubmissionService.submit(submission, idempotencyKey);
+        
+        System.out.println("[ClaimController] Response: " + resp.getStatus() + " - " + resp.getMessage());
+        
+        // Return 200 OK for all responses (including REJECTED) so frontend can read the response
+        return ResponseEntity.ok(resp);
+    }
 
-        @RequestParam(required = false) String nomineeFullName,
-        @RequestParam(required = false) String nomineeRelationship,
-        @RequestParam(required = false) String nomineeMobile,
+    /**
+     * Asynchronous submission: persists the claim, queues it for processing and
+     * returns 202 Accepted with the claim reference. Poll GET /api/claim/{claimReference} for the decision.
+     */
+    @PostMapping(value = "/submit-async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ClaimResponse> submitClaimAsync(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @ModelAttribute ClaimSubmissionForm form) throws IOException {
 
-        @RequestParam(required = false) MultipartFile claimForm,
-        @RequestParam(required = false) MultipartFile deathCertificate,
-        @RequestParam(required = false) MultipartFile doctorReport,
-        @RequestParam(required = false) MultipartFile policeReport
-    ) {
+        ClaimSubmission submission = bind(form);
 
-        Map<String, MultipartFile> files = new HashMap<>();
-        files.put("claimForm", claimForm);
-        files.put("deathCertificate", deathCertificate);
-        files.put("doctorReport", doctorReport);
-        files.put("policeReport", policeReport);
+        try {
+            ClaimResponse resp = claimSubmissionService.submitAsync(submission, idempotencyKey);
+            System.out.println("[ClaimController] Accepted async claim: " + resp.getClaimReference());
+            // A duplicate of an already decided claim gets the decision straight away
+            HttpStatus status = ClaimSubmissionService.STATUS_PROCESSING.equals(resp.getStatus())
+                    ? HttpStatus.ACCEPTED
+                    : HttpStatus.OK;
+            return ResponseEntity.status(status).body(resp);
+        } catch (TaskRejectedException e) {
+            System.out.println("[ClaimController] ⚠ Claim pipeline is saturated - rejecting submission");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(new ClaimResponse("UNAVAILABLE", "Claim processing is at capacity. Please retry shortly.", null));
+        } catch (SubmissionInProgressException e) {
+            System.out.println("[ClaimController] ⚠ Identical submission still in progress - asking client to retry");
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(new ClaimResponse("IN_PROGRESS", e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/{claimReference}")
+    public ResponseEntity<ClaimResponse> getClaimStatus(@PathVariable String claimReference) {
+        return claimSubmissionService.getStatus(claimReference)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
+    private ClaimSubmission bind(ClaimSubmissionForm form) {
+        ClaimSubmission submission = form.toSubmission();
+        logSubmission(submission);
+        return submission;
+    }
+
+    private void logSubmission(ClaimSubmission submission) {
         // ---- Logging uploaded files ----
         System.out.println("[ClaimController] Received claim submission:");
-        System.out.println("  Policy Number: " + policyNumber);
-        System.out.println("  Policy Holder: " + policyHolderName);
-        System.out.println("  Deceased: " + deceasedFullName);
+        System.out.println("  Policy Number: " + submission.getPolicyNumber());
+        System.out.println("  Policy Holder: " + submission.getPolicyHolderName());
+        System.out.println("  Deceased: " + submission.getDeceasedFullName());
         System.out.println("[ClaimController] Uploaded files:");
-        files.forEach((k, v) -> {
+        submission.getFiles().forEach((k, v) -> {
             if (v != null && !v.isEmpty()) {
                 System.out.println(" - " + k + ": " + v.getOriginalFilename() + " (" + v.getSize() + " bytes)");
             } else {
                 System.out.println(" - " + k + ": <not provided>");
             }
         });
-
-        // ---- Call Rule + AI Service ----
-        ClaimResponse resp = policyRuleService.evaluate(
-            policyNumber,
-            policyHolderName,
-            causeOfDeath,
-            files,
-            deceasedFullName,
-            deceasedEmail,
-            deceasedMobile,
-            deceasedAddress,
-            nomineeFullName,
-            nomineeRelationship,
-            nomineeMobile
-        );
-        
-        System.out.println("[ClaimController] Response: " + resp.getStatus() + " - " + resp.getMessage());
-        
-        // Return 200 OK for all responses (including REJECTED) so frontend can read the response
-        return ResponseEntity.ok(resp);
     }
 }
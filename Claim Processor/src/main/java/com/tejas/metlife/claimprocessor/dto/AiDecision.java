@@ -4,8 +4,12 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * POJO representing AI agent decision result.
+ * Confidence (0-1) is the model's own estimate; null when the model did not report one.
+ * Institutions are the hospitals and police stations the agent confirmed exist.
  */
 @Data
 @NoArgsConstructor
@@ -13,4 +17,14 @@ import lombok.NoArgsConstructor;
 public class AiDecision {
     private String decision;
     private String reason;
+    private Double confidence;
+    private List<VerifiedInstitution> institutions;
+
+    public AiDecision(String decision, String reason) {
+        this(decision, reason, null);
+    }
+
+    public AiDecision(String decision, String reason, Double confidence) {
+        this(decision, reason, confidence, List.of());
+    }
 }
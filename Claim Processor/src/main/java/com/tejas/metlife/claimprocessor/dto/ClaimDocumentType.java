@@ -0,0 +1,36 @@
+package com.tejas.metlife.claimprocessor.dto;
+
+/**
+ * Claim document slots in the fixed order the ClaimAgent prompt expects them.
+ */
+public enum ClaimDocumentType {
+
+    CLAIM_FORM("claimForm", "CLAIM FORM DOCUMENT", "ClaimForm"),
+    DEATH_CERTIFICATE("deathCertificate", "DEATH CERTIFICATE DOCUMENT", "DeathCertificate"),
+    DOCTOR_REPORT("doctorReport", "DOCTOR/HOSPITAL REPORT DOCUMENT", "DoctorReport"),
+    POLICE_REPORT("policeReport", "POLICE REPORT DOCUMENT", "PoliceReport");
+
+    private final String fieldName;
+    private final String label;
+    private final String displayName;
+
+    ClaimDocumentType(String fieldName, String label, String displayName) {
+        this.fieldName = fieldName;
+        this.label = label;
+        this.displayName = displayName;
+    }
+
+    /** Multipart form field name. */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /** Section label used in the combined OCR text. */
+    public String getLabel() {
+        return label;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
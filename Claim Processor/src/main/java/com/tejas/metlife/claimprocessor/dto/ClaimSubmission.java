@@ -0,0 +1,38 @@
+package com.tejas.metlife.claimprocessor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+
+/**
+ * All form fields and uploaded documents of a single claim submission.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClaimSubmission {
+
+    private String policyNumber;
+    private String policyHolderName;
+    private String causeOfDeath;
+
+    private String deceasedFullName;
+    private String deceasedEmail;
+    private String deceasedMobile;
+    private String deceasedAddress;
+
+    private String nomineeFullName;
+    private String nomineeRelationship;
+    private String nomineeMobile;
+
+    /** Uploaded documents keyed by form field (claimForm, deathCertificate, doctorReport, policeReport). */
+    private Map<String, MultipartFile> files;
+
+    /** Resolved idempotency key, recorded on the claim. */
+    private String idempotencyKey;
+}
@@ -0,0 +1,58 @@
+package com.tejas.metlife.claimprocessor.dto;
+
+import lombok.Data;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Multipart form of a claim submission, bound by both submit endpoints.
+ */
+@Data
+public class ClaimSubmissionForm {
+
+    private String policyNumber;
+    private String policyHolderName;
+    private String causeOfDeath;
+
+    private String deceasedFullName;
+    private String deceasedEmail;
+    private String deceasedMobile;
+    private String deceasedAddress;
+
+    private String nomineeFullName;
+    private String nomineeRelationship;
+    private String nomineeMobile;
+
+    private MultipartFile claimForm;
+    private MultipartFile deathCertificate;
+    private MultipartFile doctorReport;
+    private MultipartFile policeReport;
+
+    /** Uploaded documents keyed by form field; missing ones map to null. */
+    public Map<String, MultipartFile> files() {
+        Map<String, MultipartFile> files = new HashMap<>();
+        files.put("claimForm", claimForm);
+        files.put("deathCertificate", deathCertificate);
+        files.put("doctorReport", doctorReport);
+        files.put("policeReport", policeReport);
+        return files;
+    }
+
+    public ClaimSubmission toSubmission() {
+        return ClaimSubmission.builder()
+                .policyNumber(policyNumber)
+                .policyHolderName(policyHolderName)
+                .causeOfDeath(causeOfDeath)
+                .deceasedFullName(deceasedFullName)
+                .deceasedEmail(deceasedEmail)
+                .deceasedMobile(deceasedMobile)
+                .deceasedAddress(deceasedAddress)
+                .nomineeFullName(nomineeFullName)
+                .nomineeRelationship(nomineeRelationship)
+                .nomineeMobile(nomineeMobile)
+                .files(files())
+                .build();
+    }
+}
@@ -0,0 +1,189 @@
+package com.tejas.metlife.claimprocessor.dto;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * An uploaded document spooled once to a temp file, shared by blob upload, hashing and OCR.
+ *
+ * The SHA-256 is computed while spooling, so idempotency keys and the OCR cache never read
+ * the content again, and every consumer streams from the file instead of holding a copy on
+ * the heap. The buffer also outlives the HTTP request (servlet parts are deleted when it
+ * ends), which async processing relies on. {@link #close()} deletes the file.
+ */
+public class DocumentBuffer implements MultipartFile, AutoCloseable {
+
+    private static final int CHUNK = 3 * 16 * 1024; // multiple of 3 - no base64 padding mid-stream
+
+    private final String name;
+    private final String originalFilename;
+    private final String contentType;
+    private final Path path;
+    private final long size;
+    private final byte[] contentHash;
+
+    private DocumentBuffer(String name, String originalFilename, String contentType, Path path, long size, byte[] contentHash) {
+        this.name = name;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.path = path;
+        this.size = size;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Spool an upload into {@code dir}, hashing it on the way.
+     */
+    public static DocumentBuffer spool(MultipartFile file, Path dir) throws IOException {
+        Path path = Files.createTempFile(dir, "claim-doc-", ".bin");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest);
+                 OutputStream out = Files.newOutputStream(path)) {
+                size = in.transferTo(out);
+            }
+            return new DocumentBuffer(file.getName(), file.getOriginalFilename(), file.getContentType(),
+                    path, size, digest.digest());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /**
+     * SHA-256 of a document's content; free for buffers, one streaming read otherwise.
+     */
+    public static byte[] contentHash(MultipartFile file) throws IOException {
+        if (file instanceof DocumentBuffer buffer) {
+            return buffer.getContentHash();
+        }
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Build a {@code data:} URL by base64-encoding the stream chunk by chunk into one presized
+     * buffer, so the encoded document is never grown or re-copied while encoding. Turning the
+     * buffer into the String the OpenAI SDK needs costs one more full-size copy; the buffer is
+     * garbage right after, so the peak is two encoded copies instead of the document being held
+     * raw, encoded and as a String.
+     */
+    public static String dataUrl(String mimeType, InputStream in, long size) throws IOException {
+        byte[] prefix = ("data:" + mimeType + ";base64,").getBytes(StandardCharsets.US_ASCII);
+        long encodedLength = 4 * ((size + 2) / 3);
+        if (prefix.length + encodedLength > Integer.MAX_VALUE - 8) {
+            throw new IOException("Document too large to encode: " + size + " bytes");
+        }
+        byte[] out = new byte[prefix.length + (int) encodedLength];
+        System.arraycopy(prefix, 0, out, 0, prefix.length);
+
+        Base64.Encoder encoder = Base64.getEncoder();
+        byte[] chunk = new byte[CHUNK];
+        byte[] encoded = new byte[CHUNK / 3 * 4];
+        int pos = prefix.length;
+        int read;
+        try (in) {
+            while ((read = in.readNBytes(chunk, 0, CHUNK)) > 0) {
+                int n = read == CHUNK
+                        ? encoder.encode(chunk, encoded)
+                        : encoder.encode(Arrays.copyOf(chunk, read), encoded);
+                if (pos + n > out.length) {
+                    throw new IOException("Document grew while encoding");
+                }
+                System.arraycopy(encoded, 0, out, pos, n);
+                pos += n;
+            }
+        }
+        // Latin-1 strings are stored one byte per char, so this is a straight (but full) copy
+        return new String(out, 0, pos, StandardCharsets.ISO_8859_1);
+    }
+
+    /** Data URL of this document with its declared content type. */
+    public String toDataUrl() throws IOException {
+        return dataUrl(contentType, getInputStream(), size);
+    }
+
+    /** Spooled file, for readers that can use random access (e.g. PDF parsing). */
+    public Path getPath() {
+        return path;
+    }
+
+    public byte[] getContentHash() {
+        return contentHash.clone();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    /** Loads the whole document onto the heap; prefer {@link #getInputStream()}. */
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("[DocumentBuffer] ⚠ Could not delete " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.tejas.metlife.claimprocessor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Institution named in the claim documents that the agent confirmed exists.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VerifiedInstitution {
+    private String name;
+    /** HOSPITAL, CLINIC or POLICE_STATION */
+    private String type;
+    private String city;
+}
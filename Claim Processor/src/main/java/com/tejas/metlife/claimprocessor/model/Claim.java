@@ -5,7 +5,7 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name="claims")
+@Table(name="claims", indexes = @Index(name = "idx_claims_idempotency_key", columnList = "idempotencyKey"))
 @Data
 public class Claim {
 
@@ -13,6 +13,7 @@ public class Claim {
  @GeneratedValue(strategy = GenerationType.IDENTITY)
  private Long id;
 
+ @Column(unique = true, length = 32)
  private String claimReference;
  private String policyNumber;
  private String claimStatus;
@@ -32,6 +33,10 @@ public class Claim {
  private String policeReportUrl;
  private String claimFormUrl;
 
+ /** SHA-256 identifying the submission, used to answer client retries without re-running the pipeline. */
+ @Column(length = 64)
+ private String idempotencyKey;
+
     private String aiDecision;
     
     @Column(length = 2000)
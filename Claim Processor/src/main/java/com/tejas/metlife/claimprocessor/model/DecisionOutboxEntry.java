@@ -0,0 +1,40 @@
+package com.tejas.metlife.claimprocessor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Policy status change owed by a recorded claim decision.
+ * Written in the same transaction as the claim, applied right after and retried by the relay until it sticks.
+ * An entry still pending when a newer entry for the same policy was applied is marked SUPERSEDED instead.
+ * A claim owes at most one entry.
+ */
+@Entity
+@Table(name = "claim_decision_outbox", indexes = @Index(name = "idx_outbox_status", columnList = "status"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_outbox_claim_reference", columnNames = "claimReference"))
+@Data
+public class DecisionOutboxEntry {
+
+    public static final String PENDING = "PENDING";
+    public static final String APPLIED = "APPLIED";
+    public static final String SUPERSEDED = "SUPERSEDED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String claimReference;
+    private String policyNumber;
+    private String decision;
+
+    private String status = PENDING;
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime appliedAt;
+}
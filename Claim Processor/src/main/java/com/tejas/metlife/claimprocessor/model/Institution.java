@@ -0,0 +1,43 @@
+package com.tejas.metlife.claimprocessor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hospital, clinic or police station known to exist.
+ * Seeded from CSV or learned from the institutions the agent verified on approved claims;
+ * learned entries count as verified once approved claims on enough different policies confirmed
+ * them (see {@link InstitutionConfirmation}).
+ */
+@Entity
+@Table(name = "institutions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_institutions_identity", columnNames = {"type", "normalizedName", "normalizedCity"}))
+@Data
+public class Institution {
+
+    public static final String SOURCE_SEED = "SEED";
+    public static final String SOURCE_CLAIM = "CLAIM";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+    /** HOSPITAL, CLINIC or POLICE_STATION */
+    @Column(length = 32)
+    private String type;
+    private String city;
+
+    private String normalizedName;
+    private String normalizedCity;
+
+    @Column(length = 16)
+    private String source;
+    /** Distinct policies among the confirming claims. */
+    private int confirmations;
+
+    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime lastConfirmedAt;
+}
@@ -0,0 +1,29 @@
+package com.tejas.metlife.claimprocessor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One approved claim on which the agent verified an institution.
+ * A claim confirms an institution at most once.
+ */
+@Entity
+@Table(name = "institution_confirmations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_institution_confirmations_claim", columnNames = {"institutionId", "claimReference"}))
+@Data
+public class InstitutionConfirmation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long institutionId;
+
+    @Column(length = 32)
+    private String claimReference;
+    private String policyNumber;
+
+    private LocalDateTime confirmedAt = LocalDateTime.now();
+}
@@ -3,10 +3,31 @@ package com.tejas.metlife.claimprocessor.repository;
 
 import com.tejas.metlife.claimprocessor.model.Claim;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface ClaimRepository extends JpaRepository<Claim, Long> {
     Optional<Claim> findByPolicyNumber(String policyNumber);
+    Optional<Claim> findByClaimReference(String claimReference);
+    Optional<Claim> findFirstByIdempotencyKeyAndCreatedAtAfterOrderByIdDesc(String idempotencyKey, LocalDateTime createdAfter);
     long countByPolicyNumberAndClaimStatus(String policyNumber, String claimStatus);
+
+    /**
+     * Record the agent's preliminary decision on a claim that is still processing; a claim
+     * that already has its final decision is left untouched.
+     *
+     * @return number of rows updated (0 once the claim is finished)
+     */
+    @Modifying
+    @Transactional
+    @Query("update Claim c set c.aiDecision = :decision, c.aiReason = :reason "
+            + "where c.claimReference = :claimReference and c.claimStatus = 'PROCESSING'")
+    int recordPreliminaryDecision(@Param("claimReference") String claimReference,
+                                  @Param("decision") String decision,
+                                  @Param("reason") String reason);
 }
@@ -0,0 +1,24 @@
+package com.tejas.metlife.claimprocessor.repository;
+
+import com.tejas.metlife.claimprocessor.model.DecisionOutboxEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface DecisionOutboxRepository extends JpaRepository<DecisionOutboxEntry, Long> {
+    List<DecisionOutboxEntry> findTop50ByStatusAndAttemptsLessThanOrderByIdAsc(String status, int maxAttempts);
+
+    /** Entry row locked for the rest of the transaction, so the persist path and the relay cannot apply it twice. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from DecisionOutboxEntry e where e.id = :id")
+    Optional<DecisionOutboxEntry> findByIdForUpdate(@Param("id") Long id);
+
+    Optional<DecisionOutboxEntry> findByClaimReference(String claimReference);
+
+    boolean existsByPolicyNumberAndStatusAndIdGreaterThan(String policyNumber, String status, Long id);
+}
@@ -0,0 +1,14 @@
+package com.tejas.metlife.claimprocessor.repository;
+
+import com.tejas.metlife.claimprocessor.model.InstitutionConfirmation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface InstitutionConfirmationRepository extends JpaRepository<InstitutionConfirmation, Long> {
+    boolean existsByInstitutionIdAndClaimReference(Long institutionId, String claimReference);
+
+    /** Confirmations from claims on different policies; repeat claims on one policy count once. */
+    @Query("select count(distinct c.policyNumber) from InstitutionConfirmation c where c.institutionId = :institutionId")
+    int countDistinctPolicies(@Param("institutionId") Long institutionId);
+}
@@ -0,0 +1,7 @@
+package com.tejas.metlife.claimprocessor.repository;
+
+import com.tejas.metlife.claimprocessor.model.Institution;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface InstitutionRepository extends JpaRepository<Institution, Long> {
+}
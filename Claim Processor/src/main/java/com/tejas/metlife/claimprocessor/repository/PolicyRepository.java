@@ -1,7 +1,11 @@
 package com.tejas.metlife.claimprocessor.repository;
 
 import com.tejas.metlife.claimprocessor.model.Policy;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +14,9 @@ import java.util.Optional;
 public interface PolicyRepository extends JpaRepository<Policy, Long> {
     Optional<Policy> findByPolicyNumber(String policyNumber);
     Optional<Policy> findByPolicyNumberAndPolicyHolderNameIgnoreCase(String policyNumber, String policyHolderName);
+
+    /** Policy row locked for the rest of the transaction; serializes status updates per policy. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Policy p where p.policyNumber = :policyNumber")
+    Optional<Policy> findByPolicyNumberForUpdate(@Param("policyNumber") String policyNumber);
 }
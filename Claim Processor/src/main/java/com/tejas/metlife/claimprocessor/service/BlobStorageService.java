@@ -2,6 +2,8 @@ package com.tejas.metlife.claimprocessor.service;
 
 import com.azure.storage.blob.*;
 import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.tejas.metlife.claimprocessor.service.resilience.DependencyGuard;
+import com.tejas.metlife.claimprocessor.service.resilience.DependencyGuards;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
@@ -13,23 +15,34 @@ import java.util.UUID;
 public class BlobStorageService {
 
     private final BlobContainerClient containerClient;
+    private final DependencyGuard blobGuard;
 
     public BlobStorageService(
         @Value("${azure.storage.connection-string}") String connectionString,
-        @Value("${azure.storage.container-name}") String containerName
+        @Value("${azure.storage.container-name}") String containerName,
+        DependencyGuards dependencyGuards
     ) {
         BlobServiceClient blobServiceClient =
                 new BlobServiceClientBuilder().connectionString(connectionString).buildClient();
         this.containerClient = blobServiceClient.getBlobContainerClient(containerName);
+        this.blobGuard = dependencyGuards.get(DependencyGuards.BLOB_STORAGE);
     }
 
+    /**
+     * Upload behind the blob storage circuit breaker and bulkhead.
+     */
     public String uploadFile(MultipartFile file) {
+        return blobGuard.call(() -> upload(file));
+    }
+
+    private String upload(MultipartFile file) {
         try {
             String fileName = UUID.randomUUID() + "-" + file.getOriginalFilename();
             BlobClient blobClient = containerClient.getBlobClient(fileName);
 
-            InputStream is = file.getInputStream();
-            blobClient.upload(is, file.getSize(), true);
+            try (InputStream is = file.getInputStream()) {
+                blobClient.upload(is, file.getSize(), true);
+            }
 
             blobClient.setHttpHeaders(
                 new BlobHttpHeaders().setContentType(file.getContentType())
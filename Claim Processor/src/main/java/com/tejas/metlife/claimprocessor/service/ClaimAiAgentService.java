@@ -3,25 +3,66 @@ package com.tejas.metlife.claimprocessor.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tejas.metlife.claimprocessor.dto.AiDecision;
+import com.tejas.metlife.claimprocessor.dto.VerifiedInstitution;
+import com.tejas.metlife.claimprocessor.model.Policy;
+import com.tejas.metlife.claimprocessor.service.agent.AgentDecisionCache;
 import com.tejas.metlife.claimprocessor.service.agent.ClaimAgent;
+import com.tejas.metlife.claimprocessor.service.agent.DecisionStreamListener;
+import com.tejas.metlife.claimprocessor.service.agent.IncrementalDecisionParser;
+import com.tejas.metlife.claimprocessor.service.agent.ModelRouter;
+import com.tejas.metlife.claimprocessor.service.agent.StreamingClaimAgent;
+import com.tejas.metlife.claimprocessor.service.ratelimit.AzureOpenAiRateLimiters;
+import com.tejas.metlife.claimprocessor.service.ratelimit.RateLimitedChatModel;
+import com.tejas.metlife.claimprocessor.service.ratelimit.RateLimitedStreamingChatModel;
+import com.tejas.metlife.claimprocessor.service.resilience.DependencyGuard;
+import com.tejas.metlife.claimprocessor.service.resilience.DependencyGuards;
+import com.tejas.metlife.claimprocessor.service.resilience.DependencyUnavailableException;
+import com.tejas.metlife.claimprocessor.service.resilience.GuardedWebSearchEngine;
+import com.tejas.metlife.claimprocessor.service.search.CachingWebSearchEngine;
+import com.tejas.metlife.claimprocessor.service.search.WebSearchCache;
+import com.tejas.metlife.claimprocessor.service.tool.InstitutionRegistryTool;
 import com.tejas.metlife.claimprocessor.service.tool.PolicyTool;
 import com.tejas.metlife.claimprocessor.service.tool.PolicyRulesRagTool;
+import com.tejas.metlife.claimprocessor.service.tool.ToolCallMemo;
+import com.tejas.metlife.claimprocessor.service.tool.ToolScopedStreamingChatModel;
 import dev.langchain4j.model.azure.AzureOpenAiChatModel;
+import dev.langchain4j.model.azure.AzureOpenAiStreamingChatModel;
 import dev.langchain4j.model.chat.ChatLanguageModel;
 import dev.langchain4j.service.AiServices;
 import dev.langchain4j.web.search.WebSearchEngine;
+import dev.langchain4j.web.search.WebSearchTool;
 import dev.langchain4j.web.search.google.customsearch.GoogleCustomWebSearchEngine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * LangChain4j-based AI Agent Service for Claim Fraud Detection.
  * Integrates Azure OpenAI with PolicyTool, PolicyRulesRagTool, and WebSearchTool.
+ * Claims are triaged by cheaper deployments first and escalated by {@link ModelRouter};
+ * decisions for evidence already seen are served from {@link AgentDecisionCache}. With prefetch on,
+ * the policy snapshot and the policy rules for the cause of death are fetched before the call and
+ * sent as labeled sections, so most claims need no tool round-trip. With streaming on, the primary
+ * tier streams its answer and a caller-supplied {@link DecisionStreamListener} sees the decision
+ * before the reason is finished; the decision itself still comes from the complete answer.
  */
 @Service
 public class ClaimAiAgentService {
 
+    private static final String PRIMARY_TIER = "primary";
+
     @Value("${azure.openai.endpoint}")
     private String azureOpenAiEndpoint;
 
@@ -31,6 +72,33 @@ public class ClaimAiAgentService {
     @Value("${azure.openai.deployment}")
     private String azureOpenAiDeployment;
 
+    @Value("${claim.agent.routing.enabled:true}")
+    private boolean routingEnabled;
+
+    @Value("${claim.agent.routing.triage-deployments:}")
+    private List<String> triageDeployments;
+
+    @Value("${claim.agent.routing.triage-temperature:0.2}")
+    private double triageTemperature;
+
+    @Value("${claim.agent.routing.triage-max-tokens:800}")
+    private int triageMaxTokens;
+
+    @Value("${claim.agent.routing.min-confidence:0.85}")
+    private double minConfidence;
+
+    @Value("${claim.agent.prefetch.enabled:true}")
+    private boolean prefetchEnabled;
+
+    @Value("${claim.agent.prefetch.rules-timeout-ms:10000}")
+    private long prefetchRulesTimeoutMs;
+
+    @Value("${claim.agent.streaming.enabled:true}")
+    private boolean streamingEnabled;
+
+    @Value("${claim.agent.streaming.timeout-ms:120000}")
+    private long streamingTimeoutMs;
+
     @Value("${google.search.api.key:}")
     private String googleSearchApiKey;
 
@@ -39,15 +107,44 @@ public class ClaimAiAgentService {
 
     private final PolicyTool policyTool;
     private final PolicyRulesRagTool policyRulesRagTool;
+    private final InstitutionRegistryTool institutionRegistryTool;
     private final ObjectMapper objectMapper;
-    private ClaimAgent claimAgent;
+    private final AzureOpenAiRateLimiters rateLimiters;
+    private final DependencyGuards dependencyGuards;
+    private final DependencyGuard agentGuard;
+    private final AgentDecisionCache decisionCache;
+    private final PolicyRagService policyRagService;
+    private final ToolCallMemo toolCallMemo;
+    private final WebSearchCache webSearchCache;
+    private final MeterRegistry meterRegistry;
+    private final TaskExecutor prefetchExecutor;
+    private ModelRouter modelRouter;
 
     public ClaimAiAgentService(PolicyTool policyTool, 
                                PolicyRulesRagTool policyRulesRagTool,
-                               ObjectMapper objectMapper) {
+                               InstitutionRegistryTool institutionRegistryTool,
+                               ObjectMapper objectMapper,
+                               AzureOpenAiRateLimiters rateLimiters,
+                               DependencyGuards dependencyGuards,
+                               AgentDecisionCache decisionCache,
+                               PolicyRagService policyRagService,
+                               ToolCallMemo toolCallMemo,
+                               WebSearchCache webSearchCache,
+                               MeterRegistry meterRegistry,
+                               @Qualifier("agentPrefetchExecutor") TaskExecutor prefetchExecutor) {
         this.policyTool = policyTool;
         this.policyRulesRagTool = policyRulesRagTool;
+        this.institutionRegistryTool = institutionRegistryTool;
         this.objectMapper = objectMapper;
+        this.rateLimiters = rateLimiters;
+        this.dependencyGuards = dependencyGuards;
+        this.agentGuard = dependencyGuards.get(DependencyGuards.CLAIM_AGENT);
+        this.decisionCache = decisionCache;
+        this.policyRagService = policyRagService;
+        this.toolCallMemo = toolCallMemo;
+        this.webSearchCache = webSearchCache;
+        this.meterRegistry = meterRegistry;
+        this.prefetchExecutor = prefetchExecutor;
     }
 
     @PostConstruct
@@ -59,25 +156,13 @@ public class ClaimAiAgentService {
         System.out.println("[ClaimAiAgentService] → Deployment: " + azureOpenAiDeployment);
         System.out.println("[ClaimAiAgentService] → API Key: " + (azureOpenAiKey != null && !azureOpenAiKey.isEmpty() ? "✓ Configured" : "✗ MISSING"));
         
-        // Configure Azure OpenAI Chat Model
-        ChatLanguageModel chatModel = AzureOpenAiChatModel.builder()
-                .endpoint(azureOpenAiEndpoint)
-                .apiKey(azureOpenAiKey)
-                .deploymentName(azureOpenAiDeployment)
-                .temperature(0.7)
-                .maxTokens(1500)
-                .logRequestsAndResponses(false)
-                .build();
-        
-        System.out.println("[ClaimAiAgentService] ✓ Azure OpenAI Chat Model configured successfully");
-
         // Build AI Services with tools
         System.out.println("[ClaimAiAgentService] Building AI Services with tools...");
         System.out.println("[ClaimAiAgentService] → PolicyTool: Fetch specific policy details from database");
         System.out.println("[ClaimAiAgentService] → PolicyRulesRagTool: Retrieve relevant policy rules using RAG");
-        
-        var builder = AiServices.builder(ClaimAgent.class)
-                .chatLanguageModel(chatModel);
+        System.out.println("[ClaimAiAgentService] → InstitutionRegistryTool: Check hospitals and police stations against the local registry");
+
+        List<Object> tools = new ArrayList<>(List.of(policyTool, policyRulesRagTool, institutionRegistryTool));
 
         // Add web search tool if configured
         if (googleSearchApiKey != null && !googleSearchApiKey.isEmpty() 
@@ -91,18 +176,81 @@ public class ClaimAiAgentService {
                     .csi(googleSearchEngineId)
                     .build();
             
-            builder.tools(policyTool, policyRulesRagTool, webSearchEngine);
-            System.out.println("[ClaimAiAgentService] ✓ Initialized with PolicyTool, PolicyRulesRagTool, AND WebSearchTool");
+            // WebSearchTool exposes the engine as a @Tool; repeat searches come from the cache,
+            // and the guard behind it fails fast while Google is down
+            tools.add(WebSearchTool.from(new CachingWebSearchEngine(
+                    new GuardedWebSearchEngine(webSearchEngine, dependencyGuards.get(DependencyGuards.WEB_SEARCH)),
+                    webSearchCache)));
+            System.out.println("[ClaimAiAgentService] ✓ Initialized with PolicyTool, PolicyRulesRagTool, InstitutionRegistryTool AND WebSearchTool");
         } else {
-            builder.tools(policyTool, policyRulesRagTool);
-            System.out.println("[ClaimAiAgentService] ⚠ Initialized with PolicyTool and PolicyRulesRagTool (no web search - API key missing)");
+            System.out.println("[ClaimAiAgentService] ⚠ Initialized with PolicyTool, PolicyRulesRagTool and InstitutionRegistryTool (no web search - API key missing)");
+        }
+
+        // Cheap triage deployments first, the configured deployment decides whatever they escalate
+        List<ModelRouter.Tier> tiers = new ArrayList<>();
+        if (routingEnabled) {
+            for (String deployment : triageDeployments) {
+                if (!deployment.isBlank() && !deployment.trim().equals(azureOpenAiDeployment)) {
+                    tiers.add(new ModelRouter.Tier("triage-" + (tiers.size() + 1), deployment.trim(),
+                            buildAgent(deployment.trim(), triageTemperature, triageMaxTokens, tools)));
+                }
+            }
         }
+        // Only the deciding tier streams - an early decision from a triage tier could still be escalated
+        tiers.add(new ModelRouter.Tier(PRIMARY_TIER, azureOpenAiDeployment, buildAgent(azureOpenAiDeployment, 0.7, 1500, tools),
+                streamingEnabled ? buildStreamingAgent(azureOpenAiDeployment, 0.7, 1500, tools) : null));
+        modelRouter = new ModelRouter(tiers, minConfidence, meterRegistry);
 
-        claimAgent = builder.build();
-        System.out.println("[ClaimAiAgentService] ✓ ClaimAgent successfully initialized and ready!");
+        for (ModelRouter.Tier tier : tiers) {
+            System.out.println("[ClaimAiAgentService] → Tier " + tier.name() + ": " + tier.deployment());
+        }
+        System.out.println("[ClaimAiAgentService] ✓ ClaimAgent successfully initialized and ready!"
+                + (tiers.size() > 1 ? " (escalating below confidence " + minConfidence + ")" : ""));
         System.out.println("\n========== LANGCHAIN4J AI AGENT READY ==========\n");
     }
 
+    /**
+     * One ClaimAgent on a deployment; calls share the deployment's rate limiter with OCR.
+     */
+    private ClaimAgent buildAgent(String deployment, double temperature, int maxTokens, List<Object> tools) {
+        ChatLanguageModel chatModel = new RateLimitedChatModel(AzureOpenAiChatModel.builder()
+                .endpoint(azureOpenAiEndpoint)
+                .apiKey(azureOpenAiKey)
+                .deploymentName(deployment)
+                .temperature(temperature)
+                .maxTokens(maxTokens)
+                .logRequestsAndResponses(false)
+                .build(), rateLimiters, deployment, maxTokens);
+        System.out.println("[ClaimAiAgentService] ✓ Azure OpenAI Chat Model configured for " + deployment);
+
+        return AiServices.builder(ClaimAgent.class)
+                .chatLanguageModel(chatModel)
+                .tools(tools)
+                .build();
+    }
+
+    /**
+     * Streaming counterpart of {@link #buildAgent}. LangChain4j runs its tool calls on the
+     * model's callback thread, so the callbacks are delivered in the claim's {@link ToolCallMemo}
+     * scope and those calls are memoized like the blocking agent's.
+     */
+    private StreamingClaimAgent buildStreamingAgent(String deployment, double temperature, int maxTokens, List<Object> tools) {
+        RateLimitedStreamingChatModel streamingModel = new RateLimitedStreamingChatModel(AzureOpenAiStreamingChatModel.builder()
+                .endpoint(azureOpenAiEndpoint)
+                .apiKey(azureOpenAiKey)
+                .deploymentName(deployment)
+                .temperature(temperature)
+                .maxTokens(maxTokens)
+                .logRequestsAndResponses(false)
+                .build(), rateLimiters, deployment, maxTokens);
+        System.out.println("[ClaimAiAgentService] ✓ Azure OpenAI Streaming Chat Model configured for " + deployment);
+
+        return AiServices.builder(StreamingClaimAgent.class)
+                .streamingChatLanguageModel(new ToolScopedStreamingChatModel(streamingModel, toolCallMemo))
+                .tools(tools)
+                .build();
+    }
+
     /**
      * Analyze claim using AI agent with policy rules and web search.
      * 
@@ -111,21 +259,91 @@ public class ClaimAiAgentService {
      * @return AiDecision with decision and reason
      */
     public AiDecision analyzeClaim(String extractedText, String policyNumber) {
+        return analyzeClaim(extractedText, policyNumber, null, null);
+    }
+
+    /**
+     * Analyze a claim whose policy the caller already loaded; the agent's policy lookups
+     * for it are then answered without another query.
+     *
+     * @param knownPolicy  the claim's policy, or null
+     * @param causeOfDeath cause from the claim form, used to prefetch the matching policy rules; may be null
+     */
+    public AiDecision analyzeClaim(String extractedText, String policyNumber, Policy knownPolicy, String causeOfDeath) {
+        return analyzeClaim(extractedText, policyNumber, knownPolicy, causeOfDeath, null);
+    }
+
+    /**
+     * Analyze a claim, reporting the primary tier's decision and reason while they stream in.
+     *
+     * @param listener receives the streamed decision and reason; null to call the agent without streaming
+     */
+    public AiDecision analyzeClaim(String extractedText, String policyNumber, Policy knownPolicy, String causeOfDeath,
+                                   DecisionStreamListener listener) {
+        try (ToolCallMemo.Scope tools = toolCallMemo.open("Policy " + policyNumber)) {
+            if (knownPolicy != null) {
+                policyTool.prime(tools, knownPolicy);
+            }
+            return analyze(extractedText, policyNumber, causeOfDeath, tools, listener);
+        }
+    }
+
+    private AiDecision analyze(String extractedText, String policyNumber, String causeOfDeath, ToolCallMemo.Scope tools,
+                               DecisionStreamListener listener) {
         try {
             System.out.println("\n========== STARTING AI AGENT ANALYSIS ==========\n");
             System.out.println("[ClaimAiAgentService] Policy Number: " + policyNumber);
             System.out.println("[ClaimAiAgentService] Extracted Text Length: " + (extractedText != null ? extractedText.length() : 0) + " chars");
+
+            // Rules retrieval (an embedding call) runs while the policy is looked up and the cache is checked
+            String rulesQuery = rulesQuery(causeOfDeath);
+            CompletableFuture<String> rules = prefetchEnabled
+                    ? CompletableFuture.supplyAsync(() -> policyRulesRagTool.prefetch(rulesQuery), prefetchExecutor)
+                    : null;
+
+            // The policy as the agent's PolicyTool returns it (primed for the agent, not counted as its call) - a status change is a different key
+            String policyDetails = policyTool.details(tools, policyNumber);
+            // The rules query follows the cause of death, which the document text alone may not carry
+            String cacheKey = AgentDecisionCache.key(modelRouter.signature(), policyRagService.getCorpusVersion(),
+                    policyDetails, prefetchEnabled ? rulesQuery : "", extractedText);
+            Optional<AiDecision> cached = decisionCache.get(cacheKey);
+            if (cached.isPresent()) {
+                System.out.println("[ClaimAiAgentService] ✓ Identical evidence already decided - returning cached decision: " + cached.get().getDecision());
+                if (rules != null) {
+                    rules.cancel(true);
+                }
+                return cached.get();
+            }
+
+            String agentInput = prefetchEnabled
+                    ? withPrefetchedContext(extractedText, policyDetails, rulesQuery, rules, tools)
+                    : extractedText;
+
             System.out.println("[ClaimAiAgentService] Calling AI Agent with PolicyTool...");
             
-            // Call AI agent
-            String jsonResponse = claimAgent.analyze(extractedText, policyNumber);
-            
-            System.out.println("[ClaimAiAgentService] AI Agent Response:\n" + jsonResponse);
+            // Call AI agent, escalating from triage tiers as needed
+            Optional<AiDecision> parsed = modelRouter.route(tier -> {
+                // Triage deployments trip their own breaker, so an outage there only costs the escalation
+                DependencyGuard guard = PRIMARY_TIER.equals(tier.name())
+                        ? agentGuard
+                        : dependencyGuards.get(DependencyGuards.CLAIM_AGENT + "-" + tier.name());
+                String jsonResponse = listener != null && tier.streamingAgent() != null
+                        ? guard.call(() -> stream(tier, agentInput, policyNumber, listener))
+                        : guard.call(() -> tier.agent().analyze(agentInput, policyNumber));
+                System.out.println("[ClaimAiAgentService] AI Agent Response (" + tier.deployment() + "):\n" + jsonResponse);
+                return tryParseAiResponse(jsonResponse);
+            });
             System.out.println("\n========== AI AGENT ANALYSIS COMPLETE ==========\n");
             
-            // Parse JSON response
-            return parseAiResponse(jsonResponse);
+            // Unparseable answers are not cached
+            parsed.ifPresent(decision -> decisionCache.put(cacheKey, policyNumber, decision));
+            return parsed.orElseGet(() -> new AiDecision("MANUAL_REVIEW",
+                "Failed to parse AI response. Manual review required."));
             
+        } catch (DependencyUnavailableException e) {
+            System.err.println("[ClaimAiAgentService] ⚠ AI agent unavailable: " + e.getMessage());
+            return new AiDecision("MANUAL_REVIEW",
+                "AI analysis is temporarily unavailable (" + e.getMessage() + "). Manual review required.");
         } catch (Exception e) {
             System.err.println("\n[ClaimAiAgentService] ✗ ERROR during AI analysis: " + e.getMessage());
             e.printStackTrace();
@@ -137,9 +355,93 @@ public class ClaimAiAgentService {
     }
 
     /**
-     * Parse AI agent JSON response into AiDecision object.
+     * Call the tier's streaming agent and wait up to {@code streaming.timeout-ms} for the complete
+     * answer, passing a valid decision and the growing reason to the listener as soon as they are
+     * parsed. The time from the call to the surfaced decision is recorded as
+     * {@code claim.agent.stream.decision}. A stream that times out is abandoned: its later tokens
+     * no longer reach the listener.
      */
-    private AiDecision parseAiResponse(String jsonResponse) {
+    private String stream(ModelRouter.Tier tier, String agentInput, String policyNumber, DecisionStreamListener listener) {
+        long start = System.nanoTime();
+        CompletableFuture<String> answer = new CompletableFuture<>();
+        IncrementalDecisionParser parser = new IncrementalDecisionParser(new DecisionStreamListener() {
+            @Override
+            public void onDecision(String decision) {
+                if (answer.isDone()) {
+                    return;
+                }
+                if (!decision.equals("APPROVED") && !decision.equals("REJECTED") && !decision.equals("MANUAL_REVIEW")) {
+                    return;
+                }
+                Timer.builder("claim.agent.stream.decision").tag("tier", tier.name()).register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                System.out.println("[ClaimAiAgentService] ✓ Decision streamed after "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms: " + decision);
+                listener.onDecision(decision);
+            }
+
+            @Override
+            public void onReason(String partialReason) {
+                if (!answer.isDone()) {
+                    listener.onReason(partialReason);
+                }
+            }
+        });
+
+        tier.streamingAgent().analyze(agentInput, policyNumber)
+                .onNext(parser::feed)
+                .onComplete(response -> answer.complete(response.content().text()))
+                .onError(answer::completeExceptionally)
+                .start();
+        try {
+            return answer.get(streamingTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            answer.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while streaming from " + tier.deployment(), e);
+        } catch (TimeoutException e) {
+            answer.cancel(true);
+            throw new IllegalStateException("No complete answer streamed from " + tier.deployment()
+                    + " within " + streamingTimeoutMs + " ms", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static String rulesQuery(String causeOfDeath) {
+        String cause = causeOfDeath != null && !causeOfDeath.isBlank() ? causeOfDeath.trim() : "any cause";
+        return "coverage, exclusions, required documents and filing timeline for death by " + cause;
+    }
+
+    /**
+     * Append the prefetched policy snapshot and rules as labeled sections and prime the claim's
+     * tool scope with them, so a tool call for the same data is answered without a lookup.
+     * Rules that are not ready within the timeout are left to the agent's own tool call.
+     */
+    private String withPrefetchedContext(String extractedText, String policyDetails, String rulesQuery,
+                                         CompletableFuture<String> rules, ToolCallMemo.Scope tools) {
+        StringBuilder sb = new StringBuilder(extractedText != null ? extractedText : "");
+        sb.append("\n\n=== PREFETCHED POLICY DETAILS (getPolicyDetails) ===\n").append(policyDetails);
+        try {
+            String prefetchedRules = rules.get(prefetchRulesTimeoutMs, TimeUnit.MILLISECONDS);
+            policyRulesRagTool.prime(tools, rulesQuery, prefetchedRules);
+            sb.append("\n\n=== PREFETCHED POLICY RULES (retrievePolicyRules: \"").append(rulesQuery).append("\") ===\n")
+              .append(prefetchedRules);
+            System.out.println("[ClaimAiAgentService] ✓ Prefetched policy details and rules into the agent input");
+        } catch (Exception e) {
+            rules.cancel(true);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            System.err.println("[ClaimAiAgentService] ⚠ Policy rules prefetch failed (" + e + ") - agent will retrieve them itself");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parse AI agent JSON response into AiDecision object, or empty if it is not valid JSON.
+     */
+    private Optional<AiDecision> tryParseAiResponse(String jsonResponse) {
         try {
             // Remove markdown code blocks if present
             String cleanJson = jsonResponse.trim();
@@ -164,6 +466,10 @@ public class ClaimAiAgentService {
             String reason = rootNode.has("reason") 
                 ? rootNode.get("reason").asText() 
                 : "Unable to parse AI response";
+
+            Double confidence = rootNode.hasNonNull("confidence") && rootNode.get("confidence").isNumber()
+                ? rootNode.get("confidence").asDouble()
+                : null;
             
             // Validate decision
             if (!decision.equals("APPROVED") && 
@@ -173,13 +479,20 @@ public class ClaimAiAgentService {
                 reason = "Invalid decision from AI: " + decision + ". " + reason;
             }
             
-            return new AiDecision(decision, reason);
+            List<VerifiedInstitution> institutions = new ArrayList<>();
+            if (rootNode.has("institutions") && rootNode.get("institutions").isArray()) {
+                for (JsonNode node : rootNode.get("institutions")) {
+                    institutions.add(new VerifiedInstitution(
+                        node.path("name").asText(null), node.path("type").asText(null), node.path("city").asText(null)));
+                }
+            }
+            
+            return Optional.of(new AiDecision(decision, reason, confidence, institutions));
             
         } catch (Exception e) {
             System.err.println("[ClaimAiAgentService] Failed to parse AI response: " + jsonResponse);
             e.printStackTrace();
-            return new AiDecision("MANUAL_REVIEW", 
-                "Failed to parse AI response. Manual review required.");
+            return Optional.empty();
         }
     }
 }
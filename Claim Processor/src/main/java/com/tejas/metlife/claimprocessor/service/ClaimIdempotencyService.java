@@ -0,0 +1,211 @@
+package com.tejas.metlife.claimprocessor.service;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimDocumentType;
+import com.tejas.metlife.claimprocessor.dto.ClaimResponse;
+import com.tejas.metlife.claimprocessor.dto.ClaimSubmission;
+import com.tejas.metlife.claimprocessor.dto.DocumentBuffer;
+import com.tejas.metlife.claimprocessor.model.Claim;
+import com.tejas.metlife.claimprocessor.repository.ClaimRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Makes claim submission idempotent.
+ *
+ * The key is the client's Idempotency-Key header or, when absent, a SHA-256 over the policy
+ * number and the SHA-256 of every uploaded document. A duplicate of a submission that is
+ * still running waits for the original, or in async mode is pointed at its claim reference -
+ * an async duplicate never waits longer than {@code async-wait-ms}, and gets a
+ * {@link SubmissionInProgressException} if the original has no reference to poll by then.
+ * A duplicate of a completed one gets the stored decision back without running the pipeline again.
+ */
+@Service
+public class ClaimIdempotencyService {
+
+    private final ClaimRepository claimRepository;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${claim.idempotency.window-minutes:1440}")
+    private long windowMinutes;
+
+    @Value("${claim.idempotency.async-wait-ms:2000}")
+    private long asyncWaitMs;
+
+    public ClaimIdempotencyService(ClaimRepository claimRepository) {
+        this.claimRepository = claimRepository;
+    }
+
+    /** A submission currently being evaluated. */
+    private static final class InFlight {
+        private final CompletableFuture<ClaimResponse> result = new CompletableFuture<>();
+        // Completed once an async original has its PROCESSING row; never for a synchronous one
+        private final CompletableFuture<String> claimRef = new CompletableFuture<>();
+    }
+
+    /**
+     * Resolve the idempotency key for a submission.
+     */
+    public String keyFor(String clientKey, ClaimSubmission submission) throws IOException {
+        MessageDigest digest = sha256();
+        if (clientKey != null && !clientKey.isBlank()) {
+            digest.update(("client:" + clientKey.trim()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        }
+        digest.update(("policy:" + submission.getPolicyNumber()).getBytes(StandardCharsets.UTF_8));
+        Map<String, MultipartFile> files = submission.getFiles();
+        for (ClaimDocumentType type : ClaimDocumentType.values()) {
+            MultipartFile file = files != null ? files.get(type.getFieldName()) : null;
+            if (file != null && !file.isEmpty()) {
+                digest.update(("|" + type.getFieldName() + ":").getBytes(StandardCharsets.UTF_8));
+                digest.update(DocumentBuffer.contentHash(file));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Run a synchronous evaluation once per key.
+     */
+    public ClaimResponse execute(String key, Supplier<ClaimResponse> evaluation) {
+        Optional<ClaimResponse> completed = completedResponse(key);
+        if (completed.isPresent()) {
+            System.out.println("[ClaimIdempotencyService] Duplicate of completed claim " + completed.get().getClaimReference() + " - returning stored decision");
+            return completed.get();
+        }
+
+        InFlight mine = new InFlight();
+        InFlight existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            System.out.println("[ClaimIdempotencyService] Duplicate of in-flight submission - waiting for the original");
+            return existing.result.join();
+        }
+
+        try {
+            // The original may have finished between the lookup and the registration
+            ClaimResponse resp = completedResponse(key).orElseGet(evaluation);
+            mine.result.complete(resp);
+            return resp;
+        } catch (RuntimeException e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Accept an asynchronous submission once per key.
+     *
+     * @param accept creates the PROCESSING claim, schedules it and returns its reference
+     * @return the 202 response of the original submission for duplicates
+     */
+    public ClaimResponse executeAsync(String key, Function<Runnable, String> accept) {
+        Optional<ClaimResponse> known = latestResponse(key);
+        if (known.isPresent()) {
+            System.out.println("[ClaimIdempotencyService] Duplicate of claim " + known.get().getClaimReference());
+            return known.get();
+        }
+
+        InFlight mine = new InFlight();
+        InFlight existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            return duplicateOfInFlight(existing);
+        }
+
+        try {
+            known = latestResponse(key);
+            if (known.isPresent()) {
+                inFlight.remove(key, mine);
+                mine.result.complete(known.get());
+                return known.get();
+            }
+            // The completion callback releases the key once background processing is done
+            String ref = accept.apply(() -> {
+                inFlight.remove(key, mine);
+                mine.result.complete(latestResponse(key).orElse(null));
+            });
+            mine.claimRef.complete(ref);
+            return processing(ref);
+        } catch (RuntimeException e) {
+            inFlight.remove(key, mine);
+            mine.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Point an async duplicate at the original's claim reference, or its result if it finishes first.
+     * Waits only briefly - a synchronous original can run for minutes and never gets a reference to poll.
+     */
+    private ClaimResponse duplicateOfInFlight(InFlight existing) {
+        try {
+            CompletableFuture.anyOf(existing.claimRef, existing.result).get(asyncWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SubmissionInProgressException("Interrupted while waiting for the original submission");
+        } catch (TimeoutException e) {
+            System.out.println("[ClaimIdempotencyService] Duplicate of in-flight submission without a claim reference yet");
+            throw new SubmissionInProgressException("An identical claim submission is still being processed. Please retry shortly.");
+        } catch (ExecutionException e) {
+            // The original failed - give the duplicate the same failure below
+        }
+        if (existing.claimRef.isDone()) {
+            String ref = existing.claimRef.join();
+            System.out.println("[ClaimIdempotencyService] Duplicate of in-flight claim " + ref);
+            return processing(ref);
+        }
+        try {
+            return existing.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    private Optional<ClaimResponse> completedResponse(String key) {
+        return latestResponse(key)
+                .filter(resp -> !ClaimSubmissionService.STATUS_PROCESSING.equals(resp.getStatus()));
+    }
+
+    private Optional<ClaimResponse> latestResponse(String key) {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(windowMinutes);
+        return claimRepository.findFirstByIdempotencyKeyAndCreatedAtAfterOrderByIdDesc(key, since)
+                .map(this::toResponse);
+    }
+
+    private ClaimResponse toResponse(Claim claim) {
+        if (ClaimSubmissionService.STATUS_PROCESSING.equals(claim.getClaimStatus())) {
+            return processing(claim.getClaimReference());
+        }
+        return new ClaimResponse(claim.getClaimStatus(), claim.getAiReason(), claim.getClaimReference());
+    }
+
+    private ClaimResponse processing(String claimRef) {
+        return new ClaimResponse(ClaimSubmissionService.STATUS_PROCESSING, "Claim is being processed", claimRef);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
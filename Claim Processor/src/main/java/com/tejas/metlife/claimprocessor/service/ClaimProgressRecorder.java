@@ -0,0 +1,113 @@
+package com.tejas.metlife.claimprocessor.service;
+
+import com.tejas.metlife.claimprocessor.repository.ClaimRepository;
+import com.tejas.metlife.claimprocessor.service.agent.DecisionStreamListener;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Writes the agent's streamed decision and reason onto an async claim that is still PROCESSING,
+ * so the status endpoint can report it before the pipeline finishes.
+ *
+ * The decision is recorded as soon as it arrives; reason updates at most once per
+ * {@code progress-interval-ms}. Writes run on the progress executor, never on the model's
+ * callback thread: each claim keeps only its latest progress, and one flush at a time writes
+ * whatever is latest, so a slow database coalesces updates instead of stalling the stream.
+ * Write failures are logged and never interrupt the stream - the final decision is persisted
+ * by the pipeline either way.
+ */
+@Service
+public class ClaimProgressRecorder {
+
+    private static final int MAX_REASON_LENGTH = 2000;
+
+    private final ClaimRepository claimRepository;
+    private final TaskExecutor progressExecutor;
+    private final long intervalNanos;
+
+    private record Progress(String decision, String reason) { }
+
+    public ClaimProgressRecorder(ClaimRepository claimRepository,
+                                 @Qualifier("claimProgressExecutor") TaskExecutor progressExecutor,
+                                 @Value("${claim.agent.streaming.progress-interval-ms:1000}") long intervalMs) {
+        this.claimRepository = claimRepository;
+        this.progressExecutor = progressExecutor;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+    }
+
+    /**
+     * Listener recording one claim's streamed decision.
+     */
+    public DecisionStreamListener listener(String claimRef) {
+        AtomicReference<Progress> latest = new AtomicReference<>();
+        AtomicBoolean flushing = new AtomicBoolean();
+        return new DecisionStreamListener() {
+            private volatile String decision;
+            private volatile long lastWrite;
+
+            @Override
+            public void onDecision(String streamed) {
+                decision = streamed;
+                lastWrite = System.nanoTime();
+                record(claimRef, new Progress(streamed, null), latest, flushing);
+            }
+
+            @Override
+            public void onReason(String partialReason) {
+                long now = System.nanoTime();
+                if (decision == null || now - lastWrite < intervalNanos) {
+                    return;
+                }
+                lastWrite = now;
+                record(claimRef, new Progress(decision, partialReason), latest, flushing);
+            }
+        };
+    }
+
+    /** Make {@code progress} the claim's latest and start a flush unless one is already running. */
+    private void record(String claimRef, Progress progress, AtomicReference<Progress> latest, AtomicBoolean flushing) {
+        latest.set(progress);
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            progressExecutor.execute(() -> flush(claimRef, latest, flushing));
+        } catch (RejectedExecutionException e) {
+            flushing.set(false);
+            System.err.println("[ClaimProgressRecorder] ⚠ Progress executor saturated - skipped update for claim " + claimRef);
+        }
+    }
+
+    private void flush(String claimRef, AtomicReference<Progress> latest, AtomicBoolean flushing) {
+        while (true) {
+            Progress progress = latest.getAndSet(null);
+            if (progress != null) {
+                write(claimRef, progress.decision(), progress.reason());
+                continue;
+            }
+            flushing.set(false);
+            // An update may have landed between the empty read and the release; pick it up unless another flush did
+            if (latest.get() == null || !flushing.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void write(String claimRef, String decision, String reason) {
+        try {
+            String stored = reason != null && reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+            if (claimRepository.recordPreliminaryDecision(claimRef, decision, stored) > 0 && reason == null) {
+                System.out.println("[ClaimProgressRecorder] ✓ Claim " + claimRef + " preliminary decision: " + decision);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[ClaimProgressRecorder] ⚠ Could not record progress for claim " + claimRef + ": " + e.getMessage());
+        }
+    }
+}
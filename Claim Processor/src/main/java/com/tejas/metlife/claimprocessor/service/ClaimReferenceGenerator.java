@@ -0,0 +1,96 @@
+package com.tejas.metlife.claimprocessor.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates the public claim reference handed back to claimants.
+ *
+ * References are 63-bit ids laid out as {@code millis since 2024-01-01 (41) | node id (10) | sequence (12)},
+ * rendered as 13 Crockford base32 characters after {@code CLM-}. Fixed width keeps them
+ * lexicographically time-sortable, the node id keeps instances apart, and the
+ * per-node sequence is advanced with a CAS loop, so no lock or database round-trip is needed.
+ */
+@Component
+public class ClaimReferenceGenerator {
+
+    static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long nodeId;
+    private final LongSupplier clock;
+
+    /** Last issued (timestamp << SEQUENCE_BITS | sequence). */
+    private final AtomicLong lastState = new AtomicLong();
+
+    public ClaimReferenceGenerator(@Value("${claim.reference.node-id:-1}") int configuredNodeId) {
+        this(configuredNodeId >= 0 ? configuredNodeId : deriveNodeId(), System::currentTimeMillis);
+    }
+
+    ClaimReferenceGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("claim.reference.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        System.out.println("[ClaimReferenceGenerator] Node id: " + nodeId);
+    }
+
+    public String nextReference() {
+        return "CLM-" + encode(nextId());
+    }
+
+    long nextId() {
+        long state;
+        long next;
+        do {
+            state = lastState.get();
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            // Same millisecond (or clock stepped back): bump the sequence. A full sequence
+            // rolls into the next millisecond, so ids stay unique and increasing either way.
+            next = Math.max(now << SEQUENCE_BITS, state + 1);
+        } while (!lastState.compareAndSet(state, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & SEQUENCE_MASK;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    static String encode(long id) {
+        char[] out = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(out);
+    }
+
+    /**
+     * Fallback node id from host name and process id. Set claim.reference.node-id
+     * explicitly per instance when running more than one.
+     */
+    private static int deriveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        String identity = host + "/" + ManagementFactory.getRuntimeMXBean().getName();
+        int nodeId = (identity.hashCode() & 0x7fffffff) % (MAX_NODE_ID + 1);
+        System.out.println("[ClaimReferenceGenerator] ⚠ claim.reference.node-id not set - derived " + nodeId + " from " + identity);
+        return nodeId;
+    }
+}
@@ -0,0 +1,209 @@
+package com.tejas.metlife.claimprocessor.service;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimResponse;
+import com.tejas.metlife.claimprocessor.dto.ClaimSubmission;
+import com.tejas.metlife.claimprocessor.dto.DocumentBuffer;
+import com.tejas.metlife.claimprocessor.model.Claim;
+import com.tejas.metlife.claimprocessor.repository.ClaimRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Accepts claim submissions, synchronously or for asynchronous processing.
+ * In async mode the submission is persisted as PROCESSING, the claim reference is returned right away,
+ * and the full rule + AI pipeline runs on the bounded claim pipeline executor.
+ * Both paths are guarded by {@link ClaimIdempotencyService} so client retries do not re-run the pipeline.
+ * Uploads are spooled once into {@link DocumentBuffer}s, which are deleted when evaluation ends.
+ */
+@Service
+public class ClaimSubmissionService {
+
+    public static final String STATUS_PROCESSING = "PROCESSING";
+
+    private final PolicyRuleService policyRuleService;
+    private final ClaimRepository claimRepository;
+    private final ClaimReferenceGenerator claimReferenceGenerator;
+    private final ClaimIdempotencyService claimIdempotencyService;
+    private final TaskExecutor claimPipelineExecutor;
+
+    @Value("${claim.documents.spool-dir:${java.io.tmpdir}}")
+    private String spoolDir;
+
+    public ClaimSubmissionService(PolicyRuleService policyRuleService,
+                                  ClaimRepository claimRepository,
+                                  ClaimReferenceGenerator claimReferenceGenerator,
+                                  ClaimIdempotencyService claimIdempotencyService,
+                                  @Qualifier("claimPipelineExecutor") TaskExecutor claimPipelineExecutor) {
+        this.policyRuleService = policyRuleService;
+        this.claimRepository = claimRepository;
+        this.claimReferenceGenerator = claimReferenceGenerator;
+        this.claimIdempotencyService = claimIdempotencyService;
+        this.claimPipelineExecutor = claimPipelineExecutor;
+    }
+
+    /**
+     * Evaluate a claim on the calling thread.
+     *
+     * @param clientKey optional Idempotency-Key header value
+     */
+    public ClaimResponse submit(ClaimSubmission submission, String clientKey) throws IOException {
+        ClaimSubmission buffered = buffer(submission);
+        try {
+            String key = claimIdempotencyService.keyFor(clientKey, buffered);
+            buffered.setIdempotencyKey(key);
+            return claimIdempotencyService.execute(key, () -> policyRuleService.evaluate(buffered, null));
+        } finally {
+            release(buffered);
+        }
+    }
+
+    /**
+     * Persist the submission and schedule it for background evaluation.
+     *
+     * @param clientKey optional Idempotency-Key header value
+     * @return PROCESSING response carrying the claim reference to poll
+     * @throws org.springframework.core.task.TaskRejectedException when the pipeline queue is full
+     */
+    public ClaimResponse submitAsync(ClaimSubmission submission, String clientKey) throws IOException {
+        // Multipart parts are cleaned up when the request ends - the buffers outlive it
+        ClaimSubmission buffered = buffer(submission);
+        AtomicBoolean handedOff = new AtomicBoolean();
+        try {
+            String key = claimIdempotencyService.keyFor(clientKey, buffered);
+            buffered.setIdempotencyKey(key);
+            return claimIdempotencyService.executeAsync(key, onDone -> accept(buffered, onDone, handedOff));
+        } finally {
+            // Duplicates and rejected submissions never reach the background task
+            if (!handedOff.get()) {
+                release(buffered);
+            }
+        }
+    }
+
+    private String accept(ClaimSubmission detached, Runnable onDone, AtomicBoolean handedOff) {
+        Claim claim = new Claim();
+        claim.setClaimReference(claimReferenceGenerator.nextReference());
+        claim.setPolicyNumber(detached.getPolicyNumber());
+        claim.setCauseOfDeath(detached.getCauseOfDeath());
+        claim.setDeceasedFullName(detached.getDeceasedFullName());
+        claim.setIdempotencyKey(detached.getIdempotencyKey());
+        claim.setClaimStatus(STATUS_PROCESSING);
+        claimRepository.save(claim);
+
+        String claimRef = claim.getClaimReference();
+        System.out.println("[ClaimSubmissionService] Accepted claim " + claimRef + " for async processing");
+
+        try {
+            claimPipelineExecutor.execute(() -> {
+                try {
+                    process(detached, claimRef);
+                } finally {
+                    release(detached);
+                    onDone.run();
+                }
+            });
+            handedOff.set(true);
+        } catch (RuntimeException e) {
+            // The client is told to retry - release the key so the retry is evaluated, not answered from this row
+            claimRepository.findByClaimReference(claimRef).ifPresent(rejected -> {
+                rejected.setIdempotencyKey(null);
+                claimRepository.save(rejected);
+            });
+            markFinished(claimRef, "MANUAL_REVIEW", "Claim could not be queued for processing: " + e.getMessage());
+            throw e;
+        }
+
+        return claimRef;
+    }
+
+    /**
+     * Current status of a claim, or empty if the reference is unknown.
+     */
+    public Optional<ClaimResponse> getStatus(String claimRef) {
+        return claimRepository.findByClaimReference(claimRef)
+                .map(claim -> new ClaimResponse(
+                        claim.getClaimStatus(),
+                        STATUS_PROCESSING.equals(claim.getClaimStatus())
+                                ? processingMessage(claim)
+                                : claim.getAiReason(),
+                        claim.getClaimReference()));
+    }
+
+    /** Includes the agent's streamed decision once the AI stage has reached it. */
+    private static String processingMessage(Claim claim) {
+        if (claim.getAiDecision() == null) {
+            return "Claim is being processed";
+        }
+        return "Claim is being processed - preliminary AI decision: " + claim.getAiDecision()
+                + (claim.getAiReason() != null && !claim.getAiReason().isBlank() ? ". " + claim.getAiReason() : "");
+    }
+
+    private void process(ClaimSubmission submission, String claimRef) {
+        System.out.println("[ClaimSubmissionService] Processing claim " + claimRef + " on " + Thread.currentThread().getName());
+        try {
+            ClaimResponse resp = policyRuleService.evaluate(submission, claimRef);
+            System.out.println("[ClaimSubmissionService] Claim " + claimRef + " finished: " + resp.getStatus());
+            // Early input rejections return without writing the claim row
+            if (resp.getClaimReference() == null) {
+                markFinished(claimRef, resp.getStatus(), resp.getMessage());
+            }
+        } catch (Exception e) {
+            System.err.println("[ClaimSubmissionService] ✗ Claim " + claimRef + " failed: " + e.getMessage());
+            e.printStackTrace();
+            markFinished(claimRef, "MANUAL_REVIEW", "Claim processing failed: " + e.getMessage() + ". Manual review required.");
+        }
+    }
+
+    private void markFinished(String claimRef, String status, String reason) {
+        claimRepository.findByClaimReference(claimRef).ifPresent(claim -> {
+            if (STATUS_PROCESSING.equals(claim.getClaimStatus())) {
+                claim.setClaimStatus(status);
+                claim.setAiDecision(status);
+                claim.setAiReason(reason);
+                claimRepository.save(claim);
+            }
+        });
+    }
+
+    private ClaimSubmission buffer(ClaimSubmission submission) throws IOException {
+        Path dir = Paths.get(spoolDir);
+        Files.createDirectories(dir);
+        Map<String, MultipartFile> buffers = new HashMap<>();
+        ClaimSubmission copy = submission.toBuilder().files(buffers).build();
+        try {
+            if (submission.getFiles() != null) {
+                for (Map.Entry<String, MultipartFile> entry : submission.getFiles().entrySet()) {
+                    MultipartFile file = entry.getValue();
+                    buffers.put(entry.getKey(), file != null ? DocumentBuffer.spool(file, dir) : null);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            release(copy);
+            throw e;
+        }
+        return copy;
+    }
+
+    private void release(ClaimSubmission submission) {
+        if (submission.getFiles() == null) {
+            return;
+        }
+        for (MultipartFile file : submission.getFiles().values()) {
+            if (file instanceof DocumentBuffer buffer) {
+                buffer.close();
+            }
+        }
+    }
+}
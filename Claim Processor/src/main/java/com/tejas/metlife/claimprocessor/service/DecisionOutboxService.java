@@ -0,0 +1,146 @@
+package com.tejas.metlife.claimprocessor.service;
+
+import com.tejas.metlife.claimprocessor.model.DecisionOutboxEntry;
+import com.tejas.metlife.claimprocessor.model.Policy;
+import com.tejas.metlife.claimprocessor.repository.DecisionOutboxRepository;
+import com.tejas.metlife.claimprocessor.repository.PolicyRepository;
+import com.tejas.metlife.claimprocessor.service.agent.AgentDecisionCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reliable policy status updates for claim decisions.
+ * The claim row and its outbox entry commit together; the policy update runs in its own
+ * short transaction and is retried by {@link #relayPending()} if it fails.
+ * Applying locks the entry and the policy row, and an entry older than one already applied for
+ * the same policy is superseded rather than applied, so a late retry never rolls the status back.
+ */
+@Service
+public class DecisionOutboxService {
+
+    private final DecisionOutboxRepository outboxRepository;
+    private final PolicyRepository policyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AgentDecisionCache agentDecisionCache;
+
+    @Value("${claim.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    public DecisionOutboxService(DecisionOutboxRepository outboxRepository,
+                                 PolicyRepository policyRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 AgentDecisionCache agentDecisionCache) {
+        this.outboxRepository = outboxRepository;
+        this.policyRepository = policyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.agentDecisionCache = agentDecisionCache;
+    }
+
+    /**
+     * Record a pending policy update. Call inside the transaction that saves the claim.
+     * A retried persist gets the claim's existing entry back (applied or not) instead of a second one.
+     */
+    public DecisionOutboxEntry enqueue(String claimReference, String policyNumber, String decision) {
+        Optional<DecisionOutboxEntry> existing = outboxRepository.findByClaimReference(claimReference);
+        if (existing.isPresent()) {
+            System.out.println("[DecisionOutboxService] Claim " + claimReference + " already has outbox entry "
+                    + existing.get().getId() + " (" + existing.get().getStatus() + ")");
+            return existing.get();
+        }
+        DecisionOutboxEntry entry = new DecisionOutboxEntry();
+        entry.setClaimReference(claimReference);
+        entry.setPolicyNumber(policyNumber);
+        entry.setDecision(decision);
+        return outboxRepository.save(entry);
+    }
+
+    /**
+     * Apply one outbox entry.
+     *
+     * @return the policy status after the update, or null if it could not be applied yet
+     */
+    public String apply(Long entryId) {
+        try {
+            String[] policyNumber = new String[1];
+            String status = transactionTemplate.execute(tx -> {
+                DecisionOutboxEntry entry = outboxRepository.findByIdForUpdate(entryId).orElse(null);
+                if (entry == null || !DecisionOutboxEntry.PENDING.equals(entry.getStatus())) {
+                    return null;
+                }
+                policyNumber[0] = entry.getPolicyNumber();
+                // Locking the policy first serializes entries of the same policy, so the check below cannot race
+                Optional<Policy> opt = policyRepository.findByPolicyNumberForUpdate(entry.getPolicyNumber());
+                if (outboxRepository.existsByPolicyNumberAndStatusAndIdGreaterThan(
+                        entry.getPolicyNumber(), DecisionOutboxEntry.APPLIED, entry.getId())) {
+                    System.out.println("[DecisionOutboxService] Outbox entry " + entryId + " (claim " + entry.getClaimReference()
+                            + ") superseded by a newer decision for policy " + entry.getPolicyNumber());
+                    entry.setStatus(DecisionOutboxEntry.SUPERSEDED);
+                    outboxRepository.save(entry);
+                    return null;
+                }
+                String newStatus = null;
+                if (opt.isPresent()) {
+                    Policy policy = opt.get();
+                    newStatus = policyStatusFor(entry.getDecision());
+                    policy.setStatus(newStatus);
+                    policyRepository.save(policy);
+                }
+                entry.setStatus(DecisionOutboxEntry.APPLIED);
+                entry.setAppliedAt(LocalDateTime.now());
+                entry.setAttempts(entry.getAttempts() + 1);
+                outboxRepository.save(entry);
+                return newStatus;
+            });
+            // After commit: decisions made against the old status must not be served again
+            if (status != null) {
+                agentDecisionCache.invalidatePolicy(policyNumber[0]);
+            }
+            return status;
+        } catch (Exception e) {
+            System.err.println("[DecisionOutboxService] ⚠ Failed to apply outbox entry " + entryId + ": " + e.getMessage());
+            recordFailure(entryId, e);
+            return null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${claim.outbox.relay-interval-ms:10000}")
+    public void relayPending() {
+        List<DecisionOutboxEntry> pending =
+                outboxRepository.findTop50ByStatusAndAttemptsLessThanOrderByIdAsc(DecisionOutboxEntry.PENDING, maxAttempts);
+        if (pending.isEmpty()) {
+            return;
+        }
+        System.out.println("[DecisionOutboxService] Relaying " + pending.size() + " pending policy status update(s)");
+        for (DecisionOutboxEntry entry : pending) {
+            apply(entry.getId());
+        }
+    }
+
+    private void recordFailure(Long entryId, Exception failure) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> outboxRepository.findById(entryId).ifPresent(entry -> {
+                entry.setAttempts(entry.getAttempts() + 1);
+                String message = String.valueOf(failure.getMessage());
+                entry.setLastError(message.substring(0, Math.min(1000, message.length())));
+                outboxRepository.save(entry);
+            }));
+        } catch (Exception e) {
+            System.err.println("[DecisionOutboxService] ⚠ Could not record outbox failure for " + entryId + ": " + e.getMessage());
+        }
+    }
+
+    static String policyStatusFor(String decision) {
+        if ("APPROVED".equalsIgnoreCase(decision)) {
+            return "CLAIMED";
+        } else if ("MANUAL_REVIEW".equalsIgnoreCase(decision)) {
+            return "UNDER_REVIEW";
+        }
+        return "REJECTED";
+    }
+}
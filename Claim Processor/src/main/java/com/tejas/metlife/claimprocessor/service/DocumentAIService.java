@@ -1,91 +1,349 @@
 package com.tejas.metlife.claimprocessor.service;
 
-import com.azure.ai.openai.OpenAIClient;
+import com.azure.ai.openai.OpenAIAsyncClient;
 import com.azure.ai.openai.OpenAIClientBuilder;
 import com.azure.ai.openai.models.*;
 import com.azure.core.credential.AzureKeyCredential;
+import com.tejas.metlife.claimprocessor.dto.DocumentBuffer;
+import com.tejas.metlife.claimprocessor.service.ocr.BatchOcrContract;
+import com.tejas.metlife.claimprocessor.service.ocr.ImagePreprocessor;
+import com.tejas.metlife.claimprocessor.service.ocr.OcrResultCache;
+import com.tejas.metlife.claimprocessor.service.ratelimit.AzureOpenAiRateLimiters;
+import com.tejas.metlife.claimprocessor.service.resilience.DependencyGuard;
+import com.tejas.metlife.claimprocessor.service.resilience.DependencyGuards;
+import com.tejas.metlife.claimprocessor.service.resilience.DependencyUnavailableException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import reactor.core.scheduler.Schedulers;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class DocumentAIService {
 
-    private final OpenAIClient openAIClient;
+    /** Bump whenever the OCR prompts or request options change, so cached text is not reused. */
+    static final String PROMPT_VERSION = "vision-ocr-v1";
+
+    // Upper bound of a high-detail image after preprocessing (6 tiles x 170 + 85), for quota reservation
+    private static final int IMAGE_TOKENS_ESTIMATE = 1105;
+
+    private final OpenAIAsyncClient openAIClient;
     private final String deploymentName;
+    private final OcrResultCache ocrResultCache;
+    private final ImagePreprocessor imagePreprocessor;
+    private final AzureOpenAiRateLimiters rateLimiters;
+    private final DependencyGuard ocrGuard;
+
+    // Output cap of one batched request; must not exceed the deployment's max output tokens
+    @Value("${claim.ocr.batch.max-tokens:4096}")
+    private int batchMaxTokens;
+
+    @Value("${claim.ocr.batch.tokens-per-image:1500}")
+    private int batchTokensPerImage;
 
     public DocumentAIService(
             @Value("${azure.openai.endpoint}") String endpoint,
             @Value("${azure.openai.key}") String key,
-            @Value("${azure.openai.deployment}") String deployment
+            @Value("${azure.openai.deployment}") String deployment,
+            OcrResultCache ocrResultCache,
+            ImagePreprocessor imagePreprocessor,
+            AzureOpenAiRateLimiters rateLimiters,
+            DependencyGuards dependencyGuards
     ) {
         this.openAIClient = new OpenAIClientBuilder()
                 .endpoint(endpoint)
                 .credential(new AzureKeyCredential(key))
-                .buildClient();
+                .buildAsyncClient();
         this.deploymentName = deployment;
+        this.ocrResultCache = ocrResultCache;
+        this.imagePreprocessor = imagePreprocessor;
+        this.rateLimiters = rateLimiters;
+        this.ocrGuard = dependencyGuards.get(DependencyGuards.OCR);
     }
 
     /**
-     * Extract text from image/PDF using GPT-4o Vision
+     * Cache key for OCR output derived from a document, e.g. one rendered PDF page.
+     */
+    public String cacheKey(byte[] contentHash, String variant) {
+        return OcrResultCache.key(contentHash, deploymentName, PROMPT_VERSION + "|" + variant);
+    }
+
+    /**
+     * Extract text from image/PDF using GPT-4o Vision. Blocks; see {@link #extractTextFromImageAsync(MultipartFile)}.
      */
     public String extractTextFromImage(MultipartFile file) {
+        return await(extractTextFromImageAsync(file));
+    }
+
+    /**
+     * Non-blocking OCR of one document. The file is hashed and preprocessed on the calling
+     * thread; no thread is held while the model works. Completes with "" on OCR failure and
+     * exceptionally only with {@link DependencyUnavailableException}.
+     */
+    public CompletableFuture<String> extractTextFromImageAsync(MultipartFile file) {
+        String cacheKey;
+        String dataUrl;
         try {
             System.out.println("\n[DocumentAIService] ========== STARTING GPT-4o VISION OCR ==========");
             System.out.println("[DocumentAIService] File: " + file.getOriginalFilename());
             System.out.println("[DocumentAIService] Size: " + file.getSize() + " bytes");
             System.out.println("[DocumentAIService] Content Type: " + file.getContentType());
-            
-            // Convert image to base64
-            byte[] imageBytes = file.getBytes();
-            String base64Image = Base64.getEncoder().encodeToString(imageBytes);
-            String mimeType = file.getContentType();
-            
-            // Prepare messages for GPT-4o vision
-            List<ChatRequestMessage> messages = new ArrayList<>();
-            
-            // System message
-            messages.add(new ChatRequestSystemMessage(
-                "You are an expert OCR system. Extract ALL text from the document image exactly as it appears. " +
-                "Preserve formatting, line breaks, and structure. " +
-                "Return ONLY the extracted text, no explanations or additional commentary."
-            ));
-            
-            // User message with image
-            List<ChatMessageContentItem> contentItems = new ArrayList<>();
-            contentItems.add(new ChatMessageTextContentItem(
-                "Extract all text from this document image. Return the exact text as it appears in the document."
-            ));
-            contentItems.add(new ChatMessageImageContentItem(
-                new ChatMessageImageUrl("data:" + mimeType + ";base64," + base64Image)
-            ));
-            
-            messages.add(new ChatRequestUserMessage(contentItems));
-            
-            // Call GPT-4o Vision
-            System.out.println("[DocumentAIService] Calling GPT-4o Vision API...");
-            ChatCompletionsOptions options = new ChatCompletionsOptions(messages)
-                    .setMaxTokens(4000)
-                    .setTemperature(0.0);
-            
-            ChatCompletions response = openAIClient.getChatCompletions(deploymentName, options);
+
+            cacheKey = cacheKey(DocumentBuffer.contentHash(file), imagePreprocessor.signature());
+            Optional<String> cached = ocrResultCache.get(cacheKey);
+            if (cached.isPresent()) {
+                System.out.println("[DocumentAIService] ✓ OCR cache hit - " + cached.get().length() + " chars");
+                return CompletableFuture.completedFuture(cached.get());
+            }
+            dataUrl = dataUrl(file);
+        } catch (Exception e) {
+            System.err.println("[DocumentAIService] ⚠ OCR extraction failed: " + e.getMessage());
+            e.printStackTrace();
+            return CompletableFuture.completedFuture(""); // Return empty string on OCR failure
+        }
+
+        return recognizeAsync(dataUrl)
+                .thenApply(text -> {
+                    ocrResultCache.put(cacheKey, text);
+                    return text;
+                })
+                .exceptionally(failure -> emptyUnlessUnavailable(failure, file.getOriginalFilename()));
+    }
+
+    /**
+     * OCR an already prepared image (e.g. a rendered PDF page). Not cached; returns "" on failure.
+     */
+    public String extractTextFromImage(byte[] image, String mimeType) {
+        return await(extractTextFromImageAsync(image, mimeType));
+    }
+
+    public CompletableFuture<String> extractTextFromImageAsync(byte[] image, String mimeType) {
+        String dataUrl;
+        try {
+            dataUrl = DocumentBuffer.dataUrl(mimeType, new ByteArrayInputStream(image), image.length);
+        } catch (IOException e) {
+            System.err.println("[DocumentAIService] ⚠ OCR extraction failed: " + e.getMessage());
+            return CompletableFuture.completedFuture("");
+        }
+        return recognizeAsync(dataUrl).exceptionally(failure -> emptyUnlessUnavailable(failure, mimeType + " image"));
+    }
+
+    /**
+     * OCR several images in one vision request, keyed by label (letters/digits only).
+     * Cached documents are answered from the cache. The rest go out in batches of as many images
+     * as fit {@code tokens-per-image} each into {@code batch.max-tokens}; if a batched response
+     * breaks the {@link BatchOcrContract} each document of that batch is OCR'd on its own.
+     */
+    public Map<String, String> extractTextFromImages(Map<String, MultipartFile> files) {
+        return await(extractTextFromImagesAsync(files));
+    }
+
+    public CompletableFuture<Map<String, String>> extractTextFromImagesAsync(Map<String, MultipartFile> files) {
+        Map<String, String> texts = new LinkedHashMap<>();
+        Map<String, String> cacheKeys = new LinkedHashMap<>();
+        Map<String, String> dataUrls = new LinkedHashMap<>();
+        for (Map.Entry<String, MultipartFile> entry : files.entrySet()) {
+            String label = entry.getKey();
+            try {
+                String cacheKey = cacheKey(DocumentBuffer.contentHash(entry.getValue()), imagePreprocessor.signature());
+                Optional<String> cached = ocrResultCache.get(cacheKey);
+                if (cached.isPresent()) {
+                    texts.put(label, cached.get());
+                    continue;
+                }
+                cacheKeys.put(label, cacheKey);
+                dataUrls.put(label, dataUrl(entry.getValue()));
+            } catch (Exception e) {
+                System.err.println("[DocumentAIService] ⚠ Could not prepare " + label + ": " + e.getMessage());
+                texts.put(label, "");
+            }
+        }
+        System.out.println("[DocumentAIService] Batch OCR: " + (files.size() - dataUrls.size()) + " cached/failed, " + dataUrls.size() + " to read");
+
+        int imagesPerBatch = Math.max(1, batchMaxTokens / Math.max(1, batchTokensPerImage));
+        List<String> labels = new ArrayList<>(dataUrls.keySet());
+        List<CompletableFuture<Map<String, String>>> batches = new ArrayList<>();
+        for (int from = 0; from < labels.size(); from += imagesPerBatch) {
+            Map<String, String> batch = new LinkedHashMap<>();
+            for (String label : labels.subList(from, Math.min(labels.size(), from + imagesPerBatch))) {
+                batch.put(label, dataUrls.get(label));
+            }
+            batches.add(recognizeBatchOrEachAsync(batch));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).thenApply(done -> {
+            for (CompletableFuture<Map<String, String>> batch : batches) {
+                for (Map.Entry<String, String> entry : batch.join().entrySet()) {
+                    ocrResultCache.put(cacheKeys.get(entry.getKey()), entry.getValue());
+                    texts.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return texts;
+        });
+    }
+
+    /** One batched request for these images, or one request per image if the batch is unusable. */
+    private CompletableFuture<Map<String, String>> recognizeBatchOrEachAsync(Map<String, String> dataUrls) {
+        CompletableFuture<Map<String, String>> batch = CompletableFuture.completedFuture(null);
+        if (dataUrls.size() > 1) {
+            batch = recognizeBatchAsync(dataUrls).exceptionally(failure -> {
+                if (DependencyUnavailableException.find(failure) != null) {
+                    throw failure instanceof CompletionException ce ? ce : new CompletionException(failure);
+                }
+                System.err.println("[DocumentAIService] ⚠ Batched OCR failed: " + failure.getMessage());
+                return null;
+            });
+        }
+
+        return batch.thenCompose(recognized -> {
+            if (recognized != null) {
+                return CompletableFuture.completedFuture(recognized);
+            }
+            if (dataUrls.size() > 1) {
+                System.out.println("[DocumentAIService] ⚠ Batched response unusable - falling back to one request per document");
+            }
+            Map<String, CompletableFuture<String>> singles = new LinkedHashMap<>();
+            dataUrls.forEach((label, dataUrl) -> singles.put(label,
+                    recognizeAsync(dataUrl).exceptionally(failure -> emptyUnlessUnavailable(failure, label))));
+            return CompletableFuture.allOf(singles.values().toArray(new CompletableFuture[0]))
+                    .thenApply(done -> {
+                        Map<String, String> each = new LinkedHashMap<>();
+                        singles.forEach((label, future) -> each.put(label, future.join()));
+                        return each;
+                    });
+        });
+    }
+
+    private CompletableFuture<Map<String, String>> recognizeBatchAsync(Map<String, String> dataUrls) {
+        List<String> labels = new ArrayList<>(dataUrls.keySet());
+        List<ChatRequestMessage> messages = new ArrayList<>();
+        messages.add(new ChatRequestSystemMessage(BatchOcrContract.systemPrompt()));
+
+        List<ChatMessageContentItem> contentItems = new ArrayList<>();
+        contentItems.add(new ChatMessageTextContentItem(BatchOcrContract.userPrompt(labels)));
+        for (Map.Entry<String, String> entry : dataUrls.entrySet()) {
+            contentItems.add(new ChatMessageTextContentItem(BatchOcrContract.marker(entry.getKey())));
+            contentItems.add(new ChatMessageImageContentItem(new ChatMessageImageUrl(entry.getValue())));
+        }
+        messages.add(new ChatRequestUserMessage(contentItems));
+
+        System.out.println("[DocumentAIService] Calling GPT-4o Vision API with " + labels.size() + " images...");
+        int maxTokens = Math.min(batchTokensPerImage * labels.size(), batchMaxTokens);
+        ChatCompletionsOptions options = new ChatCompletionsOptions(messages)
+                .setMaxTokens(maxTokens)
+                .setTemperature(0.0);
+
+        return completeAsync(options, labels.size(), maxTokens).thenApply(response -> {
+            ChatChoice choice = response.getChoices().get(0);
+            if (choice.getFinishReason() == CompletionsFinishReason.TOKEN_LIMIT_REACHED) {
+                System.out.println("[DocumentAIService] ⚠ Batched response was truncated");
+                return null;
+            }
+            Map<String, String> texts = BatchOcrContract.parse(choice.getMessage().getContent(), labels);
+            if (texts != null) {
+                System.out.println("[DocumentAIService] ✓ Batched OCR completed - " + texts.keySet());
+            }
+            return texts;
+        });
+    }
+
+    /**
+     * Chat completion under the deployment's shared RPM/TPM limiter and the OCR circuit breaker.
+     * An open circuit fails before waiting for quota. Completion handling (logging, cache
+     * writes) is moved off the HTTP event loop onto Reactor's bounded elastic scheduler.
+     */
+    private CompletableFuture<ChatCompletions> completeAsync(ChatCompletionsOptions options, int images, int maxTokens) {
+        try {
+            ocrGuard.ensureAvailable();
+        } catch (DependencyUnavailableException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        int estimate = 200 + images * IMAGE_TOKENS_ESTIMATE + maxTokens;
+        return rateLimiters.callAsync(deploymentName, estimate,
+                () -> ocrGuard.callAsync(() -> openAIClient.getChatCompletions(deploymentName, options)
+                        .publishOn(Schedulers.boundedElastic())
+                        .toFuture()),
+                response -> response.getUsage() != null ? response.getUsage().getTotalTokens() : -1);
+    }
+
+    /** Keep an outage visible to the pipeline; any other failure reads as "". */
+    private static String emptyUnlessUnavailable(Throwable failure, String what) {
+        if (DependencyUnavailableException.find(failure) != null) {
+            throw failure instanceof CompletionException ce ? ce : new CompletionException(failure);
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        System.err.println("[DocumentAIService] ⚠ OCR extraction failed for " + what + ": " + cause.getMessage());
+        cause.printStackTrace();
+        return "";
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Rotate, grayscale and downscale before encoding - fewer bytes and image tokens
+    private String dataUrl(MultipartFile file) throws IOException {
+        Optional<ImagePreprocessor.PreparedImage> prepared = imagePreprocessor.prepare(file);
+        if (prepared.isPresent()) {
+            byte[] bytes = prepared.get().bytes();
+            return DocumentBuffer.dataUrl(prepared.get().mimeType(), new ByteArrayInputStream(bytes), bytes.length);
+        }
+        return DocumentBuffer.dataUrl(file.getContentType(), file.getInputStream(), file.getSize());
+    }
+
+    private CompletableFuture<String> recognizeAsync(String dataUrl) {
+        // Prepare messages for GPT-4o vision
+        List<ChatRequestMessage> messages = new ArrayList<>();
+        
+        // System message
+        messages.add(new ChatRequestSystemMessage(
+            "You are an expert OCR system. Extract ALL text from the document image exactly as it appears. " +
+            "Preserve formatting, line breaks, and structure. " +
+            "Return ONLY the extracted text, no explanations or additional commentary."
+        ));
+        
+        // User message with image
+        List<ChatMessageContentItem> contentItems = new ArrayList<>();
+        contentItems.add(new ChatMessageTextContentItem(
+            "Extract all text from this document image. Return the exact text as it appears in the document."
+        ));
+        contentItems.add(new ChatMessageImageContentItem(
+            new ChatMessageImageUrl(dataUrl)
+        ));
+        
+        messages.add(new ChatRequestUserMessage(contentItems));
+        
+        // Call GPT-4o Vision
+        System.out.println("[DocumentAIService] Calling GPT-4o Vision API...");
+        ChatCompletionsOptions options = new ChatCompletionsOptions(messages)
+                .setMaxTokens(4000)
+                .setTemperature(0.0);
+        
+        return completeAsync(options, 1, 4000).thenApply(response -> {
             String extractedText = response.getChoices().get(0).getMessage().getContent();
-            
+
             System.out.println("[DocumentAIService] ✓ GPT-4o Vision OCR completed - " + extractedText.length() + " chars");
             System.out.println("\n[FULL OCR TEXT START]");
             System.out.println(extractedText);
             System.out.println("[FULL OCR TEXT END]\n");
-            
+
             return extractedText.trim();
-            
-        } catch (Exception e) {
-            System.err.println("[DocumentAIService] ⚠ OCR extraction failed: " + e.getMessage());
-            e.printStackTrace();
-            return ""; // Return empty string on OCR failure
-        }
+        });
     }
-}
\ No newline at end of file
+}
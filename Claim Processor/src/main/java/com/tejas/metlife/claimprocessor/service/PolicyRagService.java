@@ -1,5 +1,8 @@
 package com.tejas.metlife.claimprocessor.service;
 
+import com.tejas.metlife.claimprocessor.service.agent.AgentDecisionCache;
+import com.tejas.metlife.claimprocessor.service.ratelimit.AzureOpenAiRateLimiters;
+import com.tejas.metlife.claimprocessor.service.ratelimit.RateLimitedEmbeddingModel;
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.DocumentSplitter;
 import dev.langchain4j.data.document.splitter.DocumentSplitters;
@@ -15,6 +18,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -33,10 +37,19 @@ public class PolicyRagService {
     @Value("${azure.openai.embedding.deployment:text-embedding-ada-002}")
     private String embeddingDeployment;
 
+    private final AzureOpenAiRateLimiters rateLimiters;
+    private final AgentDecisionCache agentDecisionCache;
+    // Bumped whenever the rule corpus changes; part of the agent decision cache key
+    private final AtomicLong corpusVersion = new AtomicLong();
     private EmbeddingModel embeddingModel;
     private EmbeddingStore<TextSegment> embeddingStore;
     private boolean ragEnabled = false;
 
+    public PolicyRagService(AzureOpenAiRateLimiters rateLimiters, AgentDecisionCache agentDecisionCache) {
+        this.rateLimiters = rateLimiters;
+        this.agentDecisionCache = agentDecisionCache;
+    }
+
     @PostConstruct
     public void init() {
         System.out.println("\n========== INITIALIZING POLICY RAG SERVICE ==========\n");
@@ -47,14 +60,14 @@ public class PolicyRagService {
             System.out.println("[PolicyRagService] → Endpoint: " + azureOpenAiEndpoint);
             System.out.println("[PolicyRagService] → Deployment: " + embeddingDeployment);
             
-            embeddingModel = AzureOpenAiEmbeddingModel.builder()
+            embeddingModel = new RateLimitedEmbeddingModel(AzureOpenAiEmbeddingModel.builder()
                     .endpoint(azureOpenAiEndpoint)
                     .apiKey(azureOpenAiKey)
                     .deploymentName(embeddingDeployment)
                     .serviceVersion("2024-02-01")
                     .timeout(java.time.Duration.ofSeconds(60))
                     .logRequestsAndResponses(false)
-                    .build();
+                    .build(), rateLimiters, embeddingDeployment);
             
             System.out.println("[PolicyRagService] ✓ Embedding Model initialized");
 
@@ -268,8 +281,19 @@ public class PolicyRagService {
             System.out.println("[PolicyRagService] ✓ Policy rule added successfully");
         } catch (Exception e) {
             System.err.println("[PolicyRagService] ⚠ Error adding policy rule: " + e.getMessage());
+        } finally {
+            // Even a partially added rule changes what the agent retrieves
+            corpusVersion.incrementAndGet();
+            agentDecisionCache.invalidateAll();
         }
     }
+
+    /**
+     * Version of the rule corpus; changes whenever a rule is added.
+     */
+    public long getCorpusVersion() {
+        return corpusVersion.get();
+    }
     
     /**
      * Check if RAG service is enabled and ready.
@@ -0,0 +1,12 @@
+package com.tejas.metlife.claimprocessor.service;
+
+/**
+ * Thrown for an async duplicate of a submission that is still being evaluated and has no
+ * claim reference to poll yet; the client should retry after a short delay.
+ */
+public class SubmissionInProgressException extends RuntimeException {
+
+    public SubmissionInProgressException(String message) {
+        super(message);
+    }
+}
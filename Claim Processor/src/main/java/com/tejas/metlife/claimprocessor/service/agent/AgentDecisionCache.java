@@ -0,0 +1,192 @@
+package com.tejas.metlife.claimprocessor.service.agent;
+
+import com.tejas.metlife.claimprocessor.dto.AiDecision;
+import com.tejas.metlife.claimprocessor.dto.VerifiedInstitution;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of agent decisions for identical claim evidence.
+ *
+ * Entries are keyed by a SHA-256 over the model deployment, the RAG corpus version, the
+ * policy snapshot, the rules query the prefetched rules were retrieved for and the
+ * whitespace-normalized claim evidence, so double submissions and
+ * re-adjudication of an unchanged claim skip the model call. Entries expire after
+ * {@code ttl-minutes}; beyond {@code max-entries} the least recently used one is dropped.
+ * A policy status change drops that policy's entries, a rule corpus change drops all.
+ * Lookups are counted as {@code claim.agent.cache} tagged by result.
+ */
+@Component
+public class AgentDecisionCache {
+
+    private record Entry(AiDecision decision, String policyNumber, long expiresAtNanos) { }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public AgentDecisionCache(@Value("${claim.agent.cache.enabled:true}") boolean enabled,
+                              @Value("${claim.agent.cache.max-entries:1000}") int maxEntries,
+                              @Value("${claim.agent.cache.ttl-minutes:60}") long ttlMinutes,
+                              MeterRegistry meterRegistry) {
+        this(enabled, maxEntries, TimeUnit.MINUTES.toNanos(ttlMinutes), System::nanoTime, meterRegistry);
+    }
+
+    AgentDecisionCache(boolean enabled, int maxEntries, long ttlNanos, LongSupplier clock, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > AgentDecisionCache.this.maxEntries;
+            }
+        };
+
+        this.hits = Counter.builder("claim.agent.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("claim.agent.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("claim.agent.cache.size", this, AgentDecisionCache::size).register(meterRegistry);
+    }
+
+    /**
+     * Cache key for one agent call.
+     *
+     * @param policySnapshot the policy as the agent would see it (status included)
+     * @param rulesQuery     query whose rules are prefetched into the agent input (it depends on the
+     *                       cause of death, which the evidence alone may not carry); empty without prefetch
+     */
+    public static String key(String deployment, long corpusVersion, String policySnapshot, String rulesQuery,
+                             String agentInput) {
+        MessageDigest digest = sha256();
+        digest.update((deployment + "|" + corpusVersion + "|").getBytes(StandardCharsets.UTF_8));
+        digest.update(normalize(policySnapshot).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(normalize(rulesQuery).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(normalize(agentInput).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Optional<AiDecision> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos() - clock.getAsLong() > 0) {
+                hits.increment();
+                return Optional.of(copy(entry.decision()));
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String key, String policyNumber, AiDecision decision) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new Entry(copy(decision), policyNumber, clock.getAsLong() + ttlNanos));
+        }
+    }
+
+    /**
+     * Drop the decisions made for a policy, e.g. after its status changed.
+     */
+    public void invalidatePolicy(String policyNumber) {
+        int removed = 0;
+        synchronized (entries) {
+            for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+                if (it.next().policyNumber().equals(policyNumber)) {
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            System.out.println("[AgentDecisionCache] Invalidated " + removed + " decision(s) for policy " + policyNumber);
+        }
+    }
+
+    /**
+     * Drop every decision, e.g. after the policy rule corpus changed.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        System.out.println("[AgentDecisionCache] Invalidated all decisions");
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // AiDecision is mutable - never share the cached instance
+    private static AiDecision copy(AiDecision decision) {
+        List<VerifiedInstitution> institutions = new ArrayList<>();
+        if (decision.getInstitutions() != null) {
+            for (VerifiedInstitution i : decision.getInstitutions()) {
+                institutions.add(new VerifiedInstitution(i.getName(), i.getType(), i.getCity()));
+            }
+        }
+        return new AiDecision(decision.getDecision(), decision.getReason(), decision.getConfidence(), institutions);
+    }
+
+    /** Trim every line and collapse runs of blank lines and spaces; OCR spacing is not evidence. */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        for (String line : text.split("\\R")) {
+            String collapsed = line.trim().replaceAll("[ \\t\\u00A0]+", " ");
+            if (collapsed.isEmpty()) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append('\n');
+            }
+            sb.append(collapsed);
+        }
+        return sb.toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
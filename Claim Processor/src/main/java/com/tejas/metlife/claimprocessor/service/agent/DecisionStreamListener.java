@@ -0,0 +1,13 @@
+package com.tejas.metlife.claimprocessor.service.agent;
+
+/**
+ * Receives an agent decision while the model is still streaming it.
+ */
+public interface DecisionStreamListener {
+
+    /** The decision value, as soon as the model has emitted it completely. */
+    void onDecision(String decision);
+
+    /** The reason emitted so far; called repeatedly as it grows. */
+    void onReason(String partialReason);
+}
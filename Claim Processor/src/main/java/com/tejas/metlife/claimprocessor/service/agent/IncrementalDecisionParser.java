@@ -0,0 +1,168 @@
+package com.tejas.metlife.claimprocessor.service.agent;
+
+/**
+ * Extracts {@code decision} and {@code reason} from the agent's JSON answer while it streams in.
+ *
+ * Tokens are fed as they arrive; anything before the first '{' (such as a Markdown fence) is
+ * ignored. Only string values of top-level keys are tracked - nested objects, arrays and other
+ * values are skipped with their own strings and escapes - so a "decision" key inside
+ * "institutions" is never mistaken for the verdict. The final answer is still parsed in full.
+ */
+public class IncrementalDecisionParser {
+
+    private enum State { BEFORE_OBJECT, EXPECT_KEY, IN_KEY, EXPECT_COLON, EXPECT_VALUE, IN_STRING_VALUE, IN_OTHER_VALUE, DONE }
+
+    private final DecisionStreamListener listener;
+
+    private State state = State.BEFORE_OBJECT;
+    private final StringBuilder key = new StringBuilder();
+    private final StringBuilder value = new StringBuilder();
+    private boolean escape;
+    private StringBuilder unicode;
+    // Skipping a nested value: bracket depth and whether we are inside one of its strings
+    private int depth;
+    private boolean inNestedString;
+
+    private String decision;
+
+    public IncrementalDecisionParser(DecisionStreamListener listener) {
+        this.listener = listener;
+    }
+
+    public String getDecision() {
+        return decision;
+    }
+
+    /** Consume the next streamed chunk; reports the reason at most once per chunk. */
+    public void feed(String token) {
+        if (token == null) {
+            return;
+        }
+        int reasonBefore = readingReason() ? value.length() : 0;
+        for (int i = 0; i < token.length(); i++) {
+            accept(token.charAt(i));
+        }
+        if (readingReason() && value.length() > reasonBefore) {
+            listener.onReason(value.toString());
+        }
+    }
+
+    private boolean readingReason() {
+        return state == State.IN_STRING_VALUE && "reason".contentEquals(key);
+    }
+
+    private void accept(char c) {
+        switch (state) {
+            case BEFORE_OBJECT -> {
+                if (c == '{') {
+                    state = State.EXPECT_KEY;
+                }
+            }
+            case EXPECT_KEY -> {
+                if (c == '"') {
+                    key.setLength(0);
+                    state = State.IN_KEY;
+                } else if (c == '}') {
+                    state = State.DONE;
+                }
+            }
+            case IN_KEY -> {
+                if (readStringChar(c, key)) {
+                    state = State.EXPECT_COLON;
+                }
+            }
+            case EXPECT_COLON -> {
+                if (c == ':') {
+                    state = State.EXPECT_VALUE;
+                }
+            }
+            case EXPECT_VALUE -> {
+                if (c == '"') {
+                    value.setLength(0);
+                    state = State.IN_STRING_VALUE;
+                } else if (!Character.isWhitespace(c)) {
+                    depth = c == '{' || c == '[' ? 1 : 0;
+                    inNestedString = false;
+                    state = State.IN_OTHER_VALUE;
+                }
+            }
+            case IN_STRING_VALUE -> {
+                if (readStringChar(c, value)) {
+                    completeValue();
+                    state = State.EXPECT_KEY;
+                }
+            }
+            case IN_OTHER_VALUE -> skipValue(c);
+            case DONE -> { }
+        }
+    }
+
+    /** Append one character of a JSON string; true when the closing quote was read. */
+    private boolean readStringChar(char c, StringBuilder target) {
+        if (unicode != null) {
+            unicode.append(c);
+            if (unicode.length() == 4) {
+                try {
+                    target.append((char) Integer.parseInt(unicode.toString(), 16));
+                } catch (NumberFormatException ignored) {
+                    // Malformed escape - drop it
+                }
+                unicode = null;
+            }
+            return false;
+        }
+        if (escape) {
+            escape = false;
+            switch (c) {
+                case 'n' -> target.append('\n');
+                case 't' -> target.append('\t');
+                case 'r' -> target.append('\r');
+                case 'b' -> target.append('\b');
+                case 'f' -> target.append('\f');
+                case 'u' -> unicode = new StringBuilder(4);
+                default -> target.append(c);
+            }
+            return false;
+        }
+        if (c == '\\') {
+            escape = true;
+            return false;
+        }
+        if (c == '"') {
+            return true;
+        }
+        target.append(c);
+        return false;
+    }
+
+    private void skipValue(char c) {
+        if (inNestedString) {
+            if (escape) {
+                escape = false;
+            } else if (c == '\\') {
+                escape = true;
+            } else if (c == '"') {
+                inNestedString = false;
+            }
+            return;
+        }
+        if (c == '"') {
+            inNestedString = true;
+        } else if (c == '{' || c == '[') {
+            depth++;
+        } else if ((c == '}' || c == ']') && depth > 0) {
+            depth--;
+        } else if (depth == 0 && (c == ',' || c == '}')) {
+            state = c == ',' ? State.EXPECT_KEY : State.DONE;
+        }
+    }
+
+    private void completeValue() {
+        if ("decision".contentEquals(key) && decision == null) {
+            decision = value.toString().trim();
+            listener.onDecision(decision);
+        } else if ("reason".contentEquals(key)) {
+            listener.onReason(value.toString());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.tejas.metlife.claimprocessor.service.agent;
+
+import com.tejas.metlife.claimprocessor.dto.AiDecision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Routes a claim through agent tiers from cheapest to most capable.
+ *
+ * Every tier but the last is a triage tier: its decision is final only when it is APPROVED or
+ * REJECTED with a confidence of at least {@code minConfidence}. MANUAL_REVIEW, a low or missing
+ * confidence, an unparseable answer or a failed call escalate to the next tier; the last tier
+ * always decides. Tier calls are timed as {@code claim.agent.tier} (tagged tier and
+ * outcome=final/escalated) and escalations counted as {@code claim.agent.escalations}
+ * (tagged tier and reason), so the escalation rate per tier is escalations / tier calls.
+ */
+public class ModelRouter {
+
+    /** One agent on one deployment; {@code streamingAgent} is null when the tier does not stream. */
+    public record Tier(String name, String deployment, ClaimAgent agent, StreamingClaimAgent streamingAgent) {
+
+        public Tier(String name, String deployment, ClaimAgent agent) {
+            this(name, deployment, agent, null);
+        }
+    }
+
+    private final List<Tier> tiers;
+    private final double minConfidence;
+    private final MeterRegistry meterRegistry;
+
+    public ModelRouter(List<Tier> tiers, double minConfidence, MeterRegistry meterRegistry) {
+        if (tiers.isEmpty()) {
+            throw new IllegalArgumentException("At least one agent tier is required");
+        }
+        this.tiers = List.copyOf(tiers);
+        this.minConfidence = minConfidence;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public List<Tier> getTiers() {
+        return tiers;
+    }
+
+    /** Deployments in routing order; part of the decision cache key. */
+    public String signature() {
+        StringBuilder sb = new StringBuilder();
+        for (Tier tier : tiers) {
+            sb.append(sb.length() > 0 ? ">" : "").append(tier.deployment());
+        }
+        return sb + "@" + minConfidence;
+    }
+
+    /**
+     * Run the claim through the tiers.
+     *
+     * @param analyze calls one tier's agent and parses its answer; empty if it could not be parsed.
+     *                Exceptions from the last tier propagate.
+     * @return the deciding tier's decision, or empty if the last tier's answer could not be parsed
+     */
+    public Optional<AiDecision> route(Function<Tier, Optional<AiDecision>> analyze) {
+        for (int i = 0; i < tiers.size(); i++) {
+            Tier tier = tiers.get(i);
+            boolean last = i == tiers.size() - 1;
+            long start = System.nanoTime();
+
+            Optional<AiDecision> decision;
+            try {
+                decision = analyze.apply(tier);
+            } catch (RuntimeException e) {
+                if (last) {
+                    record(tier, "final", start);
+                    throw e;
+                }
+                escalate(tier, "error", start, e.getMessage());
+                continue;
+            }
+
+            if (last) {
+                record(tier, "final", start);
+                return decision;
+            }
+            String reason = escalationReason(decision);
+            if (reason == null) {
+                record(tier, "final", start);
+                System.out.println("[ModelRouter] ✓ " + tier.name() + " (" + tier.deployment() + ") decided "
+                        + decision.get().getDecision() + " with confidence " + decision.get().getConfidence());
+                return decision;
+            }
+            escalate(tier, reason, start, decision.map(d -> d.getDecision() + ", confidence " + d.getConfidence()).orElse("no decision"));
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private String escalationReason(Optional<AiDecision> decision) {
+        if (decision.isEmpty()) {
+            return "unparseable";
+        }
+        if ("MANUAL_REVIEW".equals(decision.get().getDecision())) {
+            return "manual-review";
+        }
+        Double confidence = decision.get().getConfidence();
+        return confidence == null || confidence < minConfidence ? "low-confidence" : null;
+    }
+
+    private void escalate(Tier tier, String reason, long start, String detail) {
+        record(tier, "escalated", start);
+        Counter.builder("claim.agent.escalations").tag("tier", tier.name()).tag("reason", reason)
+                .register(meterRegistry).increment();
+        System.out.println("[ModelRouter] ⚠ Escalating from " + tier.name() + " (" + tier.deployment() + "): " + reason + " - " + detail);
+    }
+
+    private void record(Tier tier, String outcome, long start) {
+        Timer.builder("claim.agent.tier").tag("tier", tier.name()).tag("outcome", outcome)
+                .register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
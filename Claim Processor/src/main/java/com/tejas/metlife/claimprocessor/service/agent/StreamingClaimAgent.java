@@ -0,0 +1,19 @@
+package com.tejas.metlife.claimprocessor.service.agent;
+
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.TokenStream;
+import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.V;
+
+/**
+ * {@link ClaimAgent} with a streamed answer, so the decision can be read before the reason is finished.
+ */
+public interface StreamingClaimAgent {
+
+    @SystemMessage(ClaimAgent.SYSTEM_PROMPT)
+    TokenStream analyze(
+        @UserMessage("Extracted text from claim documents: {{extractedText}}\nPolicy number: {{policyNumber}}")
+        String extractedText,
+        @V("policyNumber") String policyNumber
+    );
+}
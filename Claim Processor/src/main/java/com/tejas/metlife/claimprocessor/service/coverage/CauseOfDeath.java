@@ -0,0 +1,31 @@
+package com.tejas.metlife.claimprocessor.service.coverage;
+
+import java.util.Locale;
+
+/**
+ * Coverage category of a claimed cause of death.
+ *
+ * Only the claim form's own values - Natural, Disease, Accident and Suicide - are classified.
+ * Free text from API clients is {@link #UNKNOWN} and left to the agent: keyword matching cannot
+ * tell "unnatural death" from "natural" or "suicide ruled out" from "suicide", and a wrong
+ * category here would hard-reject a claim the agent never saw.
+ */
+public enum CauseOfDeath {
+
+    NATURAL,
+    DISEASE,
+    ACCIDENT,
+    SUICIDE,
+    UNKNOWN;
+
+    public static CauseOfDeath classify(String causeOfDeath) {
+        if (causeOfDeath == null || causeOfDeath.isBlank()) {
+            return UNKNOWN;
+        }
+        try {
+            return valueOf(causeOfDeath.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException notAFormValue) {
+            return UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.tejas.metlife.claimprocessor.service.coverage;
+
+import com.tejas.metlife.claimprocessor.model.Policy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Hard coverage and exclusion rules evaluated locally before the agent runs.
+ *
+ * Only outcomes that no document could change are decided here: a suicide claim filed before
+ * the exclusion period ends, a cause of death the policy does not cover and a policy that was
+ * not yet issued. Anything else - including an unclassifiable cause - returns empty and is left
+ * to the agent. The form carries no date of death, so the claim date only bounds it from above;
+ * whether the death came before maturity (a late filing) cannot be told here and is left to the agent.
+ *
+ * Evaluations are counted as {@code claim.coverage.rules} tagged by outcome and rule.
+ */
+@Component
+public class CoverageRulesEngine {
+
+    /** A clear-cut rejection and the rule that produced it. */
+    public record Verdict(String rule, String reason) { }
+
+    @FunctionalInterface
+    private interface Rule {
+        /** Rejection reason, or null if the rule does not apply. */
+        String check(Policy policy, CauseOfDeath cause, LocalDate claimDate);
+    }
+
+    private record NamedRule(String name, Rule rule) { }
+
+    private final List<NamedRule> rules;
+    private final MeterRegistry meterRegistry;
+    private final Counter passed;
+
+    public CoverageRulesEngine(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.passed = Counter.builder("claim.coverage.rules").tag("outcome", "passed").tag("rule", "none").register(meterRegistry);
+        this.rules = List.of(
+                new NamedRule("not-in-force", (policy, cause, claimDate) ->
+                        policy.getIssueDate() != null && policy.getIssueDate().isAfter(claimDate)
+                                ? "Policy was issued on " + policy.getIssueDate() + " and was not in force when the claim was filed."
+                                : null),
+                new NamedRule("suicide-exclusion", (policy, cause, claimDate) -> {
+                    if (cause != CauseOfDeath.SUICIDE || policy.getIssueDate() == null) {
+                        return null;
+                    }
+                    LocalDate coveredFrom = policy.getIssueDate().plusYears(policy.getSuicideCoverageAfterYears());
+                    return claimDate.isBefore(coveredFrom)
+                            ? "Suicide is excluded during the first " + policy.getSuicideCoverageAfterYears()
+                              + " year(s) of the policy (issued " + policy.getIssueDate() + ", suicide covered from " + coveredFrom + ")."
+                            : null;
+                }),
+                new NamedRule("cause-not-covered", (policy, cause, claimDate) -> {
+                    boolean covered = switch (cause) {
+                        case ACCIDENT -> policy.isCoversAccident();
+                        case NATURAL -> policy.isCoversNaturalDeath();
+                        case DISEASE -> policy.isCoversDisease();
+                        case SUICIDE, UNKNOWN -> true;
+                    };
+                    return covered ? null : "Policy does not cover death by " + cause.name().toLowerCase() + ".";
+                }));
+    }
+
+    /**
+     * Evaluate the hard rules for a claim.
+     *
+     * @param causeOfDeath cause as submitted on the claim form; free text never triggers a cause-based rule
+     * @param claimDate    date the claim was filed
+     * @return the rejection, or empty when the claim needs the agent
+     */
+    public Optional<Verdict> evaluate(Policy policy, String causeOfDeath, LocalDate claimDate) {
+        CauseOfDeath cause = CauseOfDeath.classify(causeOfDeath);
+        for (NamedRule rule : rules) {
+            String reason = rule.rule().check(policy, cause, claimDate);
+            if (reason != null) {
+                Counter.builder("claim.coverage.rules").tag("outcome", "rejected").tag("rule", rule.name())
+                        .register(meterRegistry).increment();
+                return Optional.of(new Verdict(rule.name(), reason));
+            }
+        }
+        passed.increment();
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,282 @@
+package com.tejas.metlife.claimprocessor.service.institution;
+
+import com.tejas.metlife.claimprocessor.dto.VerifiedInstitution;
+import com.tejas.metlife.claimprocessor.model.Institution;
+import com.tejas.metlife.claimprocessor.model.InstitutionConfirmation;
+import com.tejas.metlife.claimprocessor.repository.InstitutionConfirmationRepository;
+import com.tejas.metlife.claimprocessor.repository.InstitutionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Registry of hospitals, clinics and police stations known to exist, checked by the agent
+ * before it falls back to web search.
+ *
+ * Rows live in the {@code institutions} table; the CSV at {@code claim.institutions.seed-csv}
+ * (type,name,city) is imported on startup, and the institutions the agent verified on an
+ * APPROVED claim are added or confirmed afterwards. A learned institution only counts as
+ * verified once confirmed by claims on {@code learn-min-confirmations} different policies - each
+ * claim is recorded once, and repeat claims on one policy count once - until then lookups report
+ * it as provisional. Names are matched fuzzily through an in-memory {@link TrigramIndex}.
+ * Database writes are serialized among themselves but never run under the index lock, so
+ * lookups do not wait for them. Lookups are counted as {@code claim.institutions.lookup} tagged by result.
+ */
+@Service
+public class InstitutionRegistry {
+
+    public static final Set<String> TYPES = Set.of("HOSPITAL", "CLINIC", "POLICE_STATION");
+
+    /** A registry entry matching a looked-up name. */
+    public record Match(Institution institution, double score, boolean verified) { }
+
+    private final InstitutionRepository institutionRepository;
+    private final InstitutionConfirmationRepository confirmationRepository;
+    private final Resource seedCsv;
+    private final double minScore;
+    private final int learnMinConfirmations;
+    private final MeterRegistry meterRegistry;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes registry writes (find-or-create, confirmation counts) without blocking lookups
+    private final Object writeMonitor = new Object();
+    private final TrigramIndex index = new TrigramIndex();
+    private final Map<Long, Institution> byId = new HashMap<>();
+    private final Map<String, Institution> byIdentity = new HashMap<>();
+
+    public InstitutionRegistry(InstitutionRepository institutionRepository,
+                               InstitutionConfirmationRepository confirmationRepository,
+                               @Value("${claim.institutions.seed-csv:classpath:institutions.csv}") Resource seedCsv,
+                               @Value("${claim.institutions.min-score:0.6}") double minScore,
+                               @Value("${claim.institutions.learn-min-confirmations:2}") int learnMinConfirmations,
+                               MeterRegistry meterRegistry) {
+        this.institutionRepository = institutionRepository;
+        this.confirmationRepository = confirmationRepository;
+        this.seedCsv = seedCsv;
+        this.minScore = minScore;
+        this.learnMinConfirmations = learnMinConfirmations;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("claim.institutions.size", this, InstitutionRegistry::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        try {
+            for (Institution institution : institutionRepository.findAll()) {
+                index(institution);
+            }
+            int seeded = importSeed();
+            System.out.println("[InstitutionRegistry] ✓ " + size() + " institutions loaded (" + seeded + " new from " + seedCsv.getDescription() + ")");
+        } catch (Exception e) {
+            System.err.println("[InstitutionRegistry] ⚠ Registry unavailable - the agent will rely on web search: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Best matches for an institution name, highest score first.
+     */
+    public List<Match> lookup(String name, int limit) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (TrigramIndex.Hit hit : index.search(name, limit, minScore)) {
+                Institution institution = byId.get(hit.id());
+                matches.add(new Match(institution, hit.score(), isVerified(institution)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        String result = matches.isEmpty() ? "none" : matches.get(0).verified() ? "verified" : "provisional";
+        Counter.builder("claim.institutions.lookup").tag("result", result).register(meterRegistry).increment();
+        return matches;
+    }
+
+    /**
+     * Record the institutions the agent verified on an approved claim. Learning the same claim
+     * again (e.g. a retried stage) does not add confirmations.
+     */
+    public void learn(List<VerifiedInstitution> institutions, String claimReference, String policyNumber) {
+        if (institutions == null || claimReference == null) {
+            return;
+        }
+        for (VerifiedInstitution verified : institutions) {
+            String type = verified.getType() != null ? verified.getType().trim().toUpperCase(Locale.ROOT) : "";
+            if (verified.getName() == null || verified.getName().isBlank() || !TYPES.contains(type)) {
+                continue;
+            }
+            try {
+                String name = verified.getName().trim();
+                String city = verified.getCity() != null ? verified.getCity().trim() : "";
+                synchronized (writeMonitor) {
+                    confirm(findOrAdd(name, type, city, Institution.SOURCE_CLAIM), claimReference, policyNumber);
+                }
+            } catch (RuntimeException e) {
+                System.err.println("[InstitutionRegistry] ⚠ Could not record " + verified.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isVerified(Institution institution) {
+        return Institution.SOURCE_SEED.equals(institution.getSource())
+                || institution.getConfirmations() >= learnMinConfirmations;
+    }
+
+    /** The registered institution, added (and indexed) first if it is not known yet. Call under the write monitor. */
+    private Institution findOrAdd(String name, String type, String city, String source) {
+        Institution existing = find(identity(type, name, city));
+        if (existing != null) {
+            return existing;
+        }
+        Institution institution = new Institution();
+        institution.setName(name);
+        institution.setType(type);
+        institution.setCity(city);
+        institution.setNormalizedName(TrigramIndex.normalize(name));
+        institution.setNormalizedCity(TrigramIndex.normalize(city));
+        institution.setSource(source);
+        institution.setLastConfirmedAt(LocalDateTime.now());
+        Institution saved = institutionRepository.save(institution);
+        index(saved);
+        if (Institution.SOURCE_CLAIM.equals(source)) {
+            System.out.println("[InstitutionRegistry] Learned " + type + " " + name + (city.isEmpty() ? "" : ", " + city));
+        }
+        return saved;
+    }
+
+    /** Record one claim's confirmation and refresh the count. Call under the write monitor. */
+    private void confirm(Institution institution, String claimReference, String policyNumber) {
+        if (confirmationRepository.existsByInstitutionIdAndClaimReference(institution.getId(), claimReference)) {
+            return;
+        }
+        InstitutionConfirmation confirmation = new InstitutionConfirmation();
+        confirmation.setInstitutionId(institution.getId());
+        confirmation.setClaimReference(claimReference);
+        confirmation.setPolicyNumber(policyNumber);
+        confirmationRepository.save(confirmation);
+
+        int confirmations = confirmationRepository.countDistinctPolicies(institution.getId());
+        LocalDateTime now = LocalDateTime.now();
+        lock.writeLock().lock();
+        try {
+            institution.setConfirmations(confirmations);
+            institution.setLastConfirmedAt(now);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        institutionRepository.save(institution);
+        System.out.println("[InstitutionRegistry] Confirmed " + institution.getName() + " by claim " + claimReference
+                + " (" + confirmations + " polic" + (confirmations == 1 ? "y" : "ies") + ")");
+    }
+
+    private Institution find(String identity) {
+        lock.readLock().lock();
+        try {
+            return byIdentity.get(identity);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Institution institution) {
+        lock.writeLock().lock();
+        try {
+            byId.put(institution.getId(), institution);
+            byIdentity.put(identity(institution.getType(), institution.getName(), institution.getCity()), institution);
+            // Index the name with its city so "Ruby Hall Pune" ranks the Pune branch first
+            String city = institution.getCity() != null ? institution.getCity() : "";
+            index.add(institution.getId(), institution.getName() + " " + city);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int importSeed() throws IOException {
+        if (seedCsv == null || !seedCsv.exists()) {
+            return 0;
+        }
+        int before = size();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(seedCsv.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            boolean header = true;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                List<String> fields = parseCsvLine(line);
+                String type = fields.get(0).trim().toUpperCase(Locale.ROOT);
+                if (fields.size() < 2 || !TYPES.contains(type) || fields.get(1).isBlank()) {
+                    System.err.println("[InstitutionRegistry] ⚠ Skipping seed line: " + line);
+                    continue;
+                }
+                synchronized (writeMonitor) {
+                    findOrAdd(fields.get(1).trim(), type, fields.size() > 2 ? fields.get(2).trim() : "", Institution.SOURCE_SEED);
+                }
+            }
+        }
+        return size() - before;
+    }
+
+    /** Fields of one CSV line; double quotes enclose fields containing commas, "" is a literal quote. */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String identity(String type, String name, String city) {
+        return type + "|" + TrigramIndex.normalize(name) + "|" + TrigramIndex.normalize(city);
+    }
+}
@@ -0,0 +1,118 @@
+package com.tejas.metlife.claimprocessor.service.institution;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fuzzy name index over character trigrams.
+ *
+ * Names are normalized (case, punctuation and common abbreviations such as "Hosp." or "P.S.")
+ * and split into padded trigrams; a query scores every indexed name sharing at least one
+ * trigram by the Dice coefficient 2|A∩B| / (|A|+|B|) using a trigram → names posting list,
+ * so lookups touch only candidate names. Not thread-safe; callers guard it.
+ */
+public class TrigramIndex {
+
+    private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(
+            Map.entry("hosp", "hospital"),
+            Map.entry("hsptl", "hospital"),
+            Map.entry("ps", "police station"),
+            Map.entry("pol", "police"),
+            Map.entry("stn", "station"),
+            Map.entry("govt", "government"),
+            Map.entry("gen", "general"),
+            Map.entry("mem", "memorial"),
+            Map.entry("&", "and"));
+
+    /** Search result: the indexed id and its similarity (0-1). */
+    public record Hit(long id, double score) { }
+
+    private final List<Long> ids = new ArrayList<>();
+    private final List<Integer> sizes = new ArrayList<>();
+    private final Map<String, List<Integer>> postings = new HashMap<>();
+
+    public void add(long id, String name) {
+        Set<String> grams = trigrams(normalize(name));
+        if (grams.isEmpty()) {
+            return;
+        }
+        int doc = ids.size();
+        ids.add(id);
+        sizes.add(grams.size());
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new ArrayList<>()).add(doc);
+        }
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * Best matches for a name, highest score first.
+     */
+    public List<Hit> search(String query, int limit, double minScore) {
+        Set<String> grams = trigrams(normalize(query));
+        if (grams.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            List<Integer> docs = postings.get(gram);
+            if (docs != null) {
+                for (int doc : docs) {
+                    shared.merge(doc, 1, Integer::sum);
+                }
+            }
+        }
+        List<Hit> hits = new ArrayList<>();
+        shared.forEach((doc, common) -> {
+            double score = 2.0 * common / (grams.size() + sizes.get(doc));
+            if (score >= minScore) {
+                hits.add(new Hit(ids.get(doc), score));
+            }
+        });
+        hits.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    /** Lower case, punctuation to spaces, abbreviations expanded, single spaces. */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String cleaned = name.toLowerCase(Locale.ROOT)
+                .replace("&", " & ")
+                .replaceAll("\\bp\\s*\\.\\s*s\\b\\.?", "ps")
+                .replaceAll("[^\\p{L}\\p{N}&]+", " ")
+                .trim();
+        StringBuilder sb = new StringBuilder();
+        for (String word : cleaned.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            sb.append(ABBREVIATIONS.getOrDefault(word, word));
+        }
+        return sb.toString();
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        if (normalized.isEmpty()) {
+            return grams;
+        }
+        String padded = "  " + normalized + " ";
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+}
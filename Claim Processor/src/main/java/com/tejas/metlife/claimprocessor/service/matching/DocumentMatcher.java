@@ -0,0 +1,244 @@
+package com.tejas.metlife.claimprocessor.service.matching;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Finds many patterns in OCR text in one pass (Aho-Corasick).
+ *
+ * Patterns and text are normalized on the fly to lowercase letters and digits, so
+ * "POL-12 345" matches "pol12345" and "RAHUL  SHARMA" matches "Rahul Sharma" without
+ * copying or lower-casing the document. Each pattern belongs to a key (for example
+ * "policyNumber"); several alternative patterns may share a key.
+ *
+ * A built matcher is immutable and safe to share between threads.
+ */
+public final class DocumentMatcher {
+
+    private final String[] keys;
+    // Trie nodes: sorted child labels and targets per node, failure links, pattern-key outputs
+    private final char[][] childLabels;
+    private final int[][] childTargets;
+    private final int[] failure;
+    private final int[][] outputs;
+
+    private DocumentMatcher(String[] keys, char[][] childLabels, int[][] childTargets, int[] failure, int[][] outputs) {
+        this.keys = keys;
+        this.childLabels = childLabels;
+        this.childTargets = childTargets;
+        this.failure = failure;
+        this.outputs = outputs;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Pattern keys in registration order. */
+    public List<String> keys() {
+        return List.of(keys);
+    }
+
+    /**
+     * Scan one document and record every key found in it under {@code source}.
+     */
+    public void scan(String source, CharSequence text, MatchReport report) {
+        if (text == null) {
+            return;
+        }
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            int next = child(state, c);
+            while (next < 0 && state != 0) {
+                state = failure[state];
+                next = child(state, c);
+            }
+            state = next < 0 ? 0 : next;
+            for (int keyIndex : outputs[state]) {
+                report.record(keyIndex, source);
+            }
+        }
+    }
+
+    /**
+     * Scan documents in order; keys are reported per source label.
+     */
+    public MatchReport scanAll(Map<String, ? extends CharSequence> documents) {
+        MatchReport report = new MatchReport(keys);
+        for (Map.Entry<String, ? extends CharSequence> entry : documents.entrySet()) {
+            scan(entry.getKey(), entry.getValue(), report);
+        }
+        return report;
+    }
+
+    private int child(int node, char c) {
+        int idx = Arrays.binarySearch(childLabels[node], c);
+        return idx >= 0 ? childTargets[node][idx] : -1;
+    }
+
+    static String normalize(CharSequence value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Integer> keyIndex = new LinkedHashMap<>();
+        private final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        private final List<List<Integer>> nodeOutputs = new ArrayList<>();
+
+        private Builder() {
+            newNode();
+        }
+
+        /**
+         * Add a pattern under a key. Blank patterns (nothing left after normalization) are ignored,
+         * but the key is still registered so it reports as not found.
+         */
+        public Builder pattern(String key, String pattern) {
+            int index = keyIndex.computeIfAbsent(key, k -> keyIndex.size());
+            if (pattern == null) {
+                return this;
+            }
+            String normalized = normalize(pattern);
+            if (normalized.isEmpty()) {
+                return this;
+            }
+            int node = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                char c = normalized.charAt(i);
+                Integer next = children.get(node).get(c);
+                if (next == null) {
+                    next = newNode();
+                    children.get(node).put(c, next);
+                }
+                node = next;
+            }
+            if (!nodeOutputs.get(node).contains(index)) {
+                nodeOutputs.get(node).add(index);
+            }
+            return this;
+        }
+
+        public DocumentMatcher build() {
+            int size = children.size();
+            char[][] labels = new char[size][];
+            int[][] targets = new int[size][];
+            for (int node = 0; node < size; node++) {
+                TreeMap<Character, Integer> map = children.get(node);
+                labels[node] = new char[map.size()];
+                targets[node] = new int[map.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> e : map.entrySet()) {
+                    labels[node][i] = e.getKey();
+                    targets[node][i] = e.getValue();
+                    i++;
+                }
+            }
+
+            // Breadth-first failure links; outputs inherit those of their failure node
+            int[] failure = new int[size];
+            List<List<Integer>> merged = new ArrayList<>();
+            for (List<Integer> out : nodeOutputs) {
+                merged.add(new ArrayList<>(out));
+            }
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int child : targets[0]) {
+                failure[child] = 0;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                for (int i = 0; i < labels[node].length; i++) {
+                    char c = labels[node][i];
+                    int child = targets[node][i];
+                    int f = failure[node];
+                    int fallback = find(labels, targets, f, c);
+                    while (fallback < 0 && f != 0) {
+                        f = failure[f];
+                        fallback = find(labels, targets, f, c);
+                    }
+                    failure[child] = fallback < 0 ? 0 : fallback;
+                    for (int key : merged.get(failure[child])) {
+                        if (!merged.get(child).contains(key)) {
+                            merged.get(child).add(key);
+                        }
+                    }
+                    queue.add(child);
+                }
+            }
+
+            int[][] outputs = new int[size][];
+            for (int node = 0; node < size; node++) {
+                outputs[node] = merged.get(node).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return new DocumentMatcher(keyIndex.keySet().toArray(new String[0]), labels, targets, failure, outputs);
+        }
+
+        private static int find(char[][] labels, int[][] targets, int node, char c) {
+            int idx = Arrays.binarySearch(labels[node], c);
+            return idx >= 0 ? targets[node][idx] : -1;
+        }
+
+        private int newNode() {
+            children.add(new TreeMap<>());
+            nodeOutputs.add(new ArrayList<>());
+            return children.size() - 1;
+        }
+    }
+
+    /**
+     * Which keys were found, and in which documents.
+     */
+    public static final class MatchReport {
+
+        private final String[] keys;
+        private final Map<String, List<String>> sourcesByKey = new HashMap<>();
+
+        MatchReport(String[] keys) {
+            this.keys = keys;
+        }
+
+        void record(int keyIndex, String source) {
+            List<String> sources = sourcesByKey.computeIfAbsent(keys[keyIndex], k -> new ArrayList<>(2));
+            if (!sources.contains(source)) {
+                sources.add(source);
+            }
+        }
+
+        public boolean isFound(String key) {
+            return sourcesByKey.containsKey(key);
+        }
+
+        /** Source labels that contain the key, in scan order. */
+        public List<String> sourcesOf(String key) {
+            return sourcesByKey.getOrDefault(key, List.of());
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            for (String key : keys) {
+                sb.append(key).append('=').append(sourcesOf(key)).append(' ');
+            }
+            return sb.toString().trim();
+        }
+    }
+}
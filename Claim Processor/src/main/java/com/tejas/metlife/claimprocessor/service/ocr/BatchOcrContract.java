@@ -0,0 +1,73 @@
+package com.tejas.metlife.claimprocessor.service.ocr;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Delimiter contract for OCR of several documents in one vision request.
+ *
+ * Each image is preceded by a {@code <<<DOC:label>>>} text item, and the model must echo that
+ * marker on its own line before the document's text, ending with {@code <<<END>>>}.
+ * {@link #parse} only accepts a response that contains every label exactly once.
+ */
+public final class BatchOcrContract {
+
+    private static final Pattern MARKER = Pattern.compile("^\\s*<<<(DOC:([A-Za-z0-9_-]+)|END)>>>\\s*$", Pattern.MULTILINE);
+
+    private BatchOcrContract() {
+    }
+
+    public static String marker(String label) {
+        return "<<<DOC:" + label + ">>>";
+    }
+
+    public static String systemPrompt() {
+        return "You are an expert OCR system. You will receive several document images. " +
+               "Each image is preceded by a marker line such as <<<DOC:Label>>>. " +
+               "Extract ALL text from every image exactly as it appears, preserving formatting, line breaks, and structure. " +
+               "For each document, output its marker on its own line followed by that document's text, in the order given. " +
+               "After the last document output <<<END>>> on its own line. " +
+               "Return ONLY the markers and the extracted text, no explanations or additional commentary.";
+    }
+
+    public static String userPrompt(List<String> labels) {
+        return "Extract all text from these " + labels.size() + " document images. Use exactly these markers: "
+                + String.join(", ", labels.stream().map(BatchOcrContract::marker).toList()) + ".";
+    }
+
+    /**
+     * Split a batched response into text per label, or null if it breaks the contract.
+     */
+    public static Map<String, String> parse(String response, List<String> labels) {
+        if (response == null) {
+            return null;
+        }
+        Map<String, String> texts = new LinkedHashMap<>();
+        Matcher m = MARKER.matcher(response);
+        String current = null;
+        int textStart = 0;
+        while (m.find()) {
+            if (current != null) {
+                texts.put(current, response.substring(textStart, m.start()).trim());
+            }
+            String label = m.group(2);
+            if (label == null) {
+                current = null;
+                break;
+            }
+            if (!labels.contains(label) || texts.containsKey(label) || label.equals(current)) {
+                return null;
+            }
+            current = label;
+            textStart = m.end();
+        }
+        if (current != null) {
+            // Missing <<<END>>> - accept only if the response was not cut off mid-document
+            texts.put(current, response.substring(textStart).trim());
+        }
+        return texts.keySet().containsAll(labels) && texts.size() == labels.size() ? texts : null;
+    }
+}
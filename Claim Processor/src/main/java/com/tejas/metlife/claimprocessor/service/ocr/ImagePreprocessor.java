@@ -0,0 +1,271 @@
+package com.tejas.metlife.claimprocessor.service.ocr;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prepares uploaded images for vision OCR: decodes locally, applies the EXIF orientation,
+ * converts to grayscale, downscales so the longest side fits {@code max-dimension} and
+ * re-encodes as JPEG. Anything ImageIO cannot decode (PDFs, HEIC, ...) is passed through,
+ * as is any result that would not be smaller than the upload.
+ *
+ * Bytes before/after are recorded as {@code claim.ocr.preprocess.bytes} and the time spent
+ * as the {@code claim.ocr.preprocess} timer.
+ */
+@Component
+public class ImagePreprocessor {
+
+    public record PreparedImage(byte[] bytes, String mimeType) {}
+
+    // EXIF (APP1) sits at the start of a JPEG and is at most 64 KB
+    private static final int EXIF_SCAN_BYTES = 64 * 1024 + 16;
+
+    private final boolean enabled;
+    private final int maxDimension;
+    private final float jpegQuality;
+    private final boolean grayscale;
+
+    private final DistributionSummary bytesBefore;
+    private final DistributionSummary bytesAfter;
+    private final Timer latency;
+
+    public ImagePreprocessor(@Value("${claim.ocr.preprocess.enabled:true}") boolean enabled,
+                             @Value("${claim.ocr.preprocess.max-dimension:2048}") int maxDimension,
+                             @Value("${claim.ocr.preprocess.jpeg-quality:0.85}") float jpegQuality,
+                             @Value("${claim.ocr.preprocess.grayscale:true}") boolean grayscale,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxDimension = maxDimension;
+        this.jpegQuality = jpegQuality;
+        this.grayscale = grayscale;
+        this.bytesBefore = bytes(meterRegistry, "before");
+        this.bytesAfter = bytes(meterRegistry, "after");
+        this.latency = Timer.builder("claim.ocr.preprocess").register(meterRegistry);
+    }
+
+    /**
+     * Settings that change the image sent to the model; part of the OCR cache key.
+     */
+    public String signature() {
+        return enabled ? "pre:" + maxDimension + ":" + jpegQuality + ":" + (grayscale ? "gray" : "rgb") : "pre:off";
+    }
+
+    /**
+     * Preprocessed image, or empty when the original should be sent as is.
+     */
+    public Optional<PreparedImage> prepare(MultipartFile file) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        long originalSize = file.getSize();
+        bytesBefore.record(originalSize);
+        try {
+            BufferedImage decoded;
+            try (InputStream in = file.getInputStream()) {
+                decoded = ImageIO.read(in);
+            }
+            if (decoded == null) {
+                bytesAfter.record(originalSize);
+                return Optional.empty();
+            }
+
+            int orientation;
+            try (InputStream in = file.getInputStream()) {
+                orientation = exifOrientation(in.readNBytes(EXIF_SCAN_BYTES));
+            }
+            BufferedImage normalized = normalize(decoded, orientation);
+            byte[] encoded = encodeJpeg(normalized);
+
+            if (encoded.length >= originalSize && orientation <= 1) {
+                bytesAfter.record(originalSize);
+                return Optional.empty();
+            }
+            bytesAfter.record(encoded.length);
+            System.out.println("[ImagePreprocessor] " + decoded.getWidth() + "x" + decoded.getHeight()
+                    + " (orientation " + orientation + ") -> " + normalized.getWidth() + "x" + normalized.getHeight()
+                    + ", " + originalSize / 1024 + " KB -> " + encoded.length / 1024 + " KB");
+            return Optional.of(new PreparedImage(encoded, "image/jpeg"));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("[ImagePreprocessor] ⚠ Preprocessing failed, sending original: " + e.getMessage());
+            bytesAfter.record(originalSize);
+            return Optional.empty();
+        } finally {
+            latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private BufferedImage normalize(BufferedImage source, int orientation) {
+        boolean swap = orientation >= 5 && orientation <= 8;
+        int orientedWidth = swap ? source.getHeight() : source.getWidth();
+        int orientedHeight = swap ? source.getWidth() : source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(orientedWidth, orientedHeight));
+
+        // Halve in steps first - a single bicubic pass aliases badly on large reductions
+        BufferedImage working = source;
+        while (scale < 0.5) {
+            working = resize(working, working.getWidth() / 2, working.getHeight() / 2);
+            scale *= 2;
+        }
+
+        int sw = working.getWidth();
+        int sh = working.getHeight();
+        int width = Math.max(1, (int) Math.round((swap ? sh : sw) * scale));
+        int height = Math.max(1, (int) Math.round((swap ? sw : sh) * scale));
+
+        AffineTransform transform = AffineTransform.getScaleInstance(scale, scale);
+        transform.concatenate(orientationTransform(orientation, sw, sh));
+
+        BufferedImage target = new BufferedImage(width, height, grayscale ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // Transparent PNG areas become white paper, not black
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(working, transform, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, target.getWidth(), target.getHeight());
+            g.drawImage(source, 0, 0, target.getWidth(), target.getHeight(), null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /** Maps stored pixel coordinates to display coordinates for EXIF orientations 1-8. */
+    static AffineTransform orientationTransform(int orientation, int w, int h) {
+        switch (orientation) {
+            case 2: return new AffineTransform(-1, 0, 0, 1, w, 0);   // mirror horizontal
+            case 3: return new AffineTransform(-1, 0, 0, -1, w, h);  // rotate 180
+            case 4: return new AffineTransform(1, 0, 0, -1, 0, h);   // mirror vertical
+            case 5: return new AffineTransform(0, 1, 1, 0, 0, 0);    // transpose
+            case 6: return new AffineTransform(0, 1, -1, 0, h, 0);   // rotate 90 CW
+            case 7: return new AffineTransform(0, -1, -1, 0, h, w);  // transverse
+            case 8: return new AffineTransform(0, -1, 1, 0, 0, w);   // rotate 90 CCW
+            default: return new AffineTransform();
+        }
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG encoder available");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * EXIF orientation (1-8) from a JPEG APP1 segment, or 1 when absent or not a JPEG.
+     */
+    static int exifOrientation(byte[] data) {
+        // data may be just the head of the file; every read below is bounds-checked
+        if (data.length < 4 || (data[0] & 0xFF) != 0xFF || (data[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+        int pos = 2;
+        while (pos + 4 <= data.length) {
+            if ((data[pos] & 0xFF) != 0xFF) {
+                return 1;
+            }
+            int marker = data[pos + 1] & 0xFF;
+            if (marker == 0xDA || marker == 0xD9) {
+                return 1; // start of scan - no more metadata
+            }
+            int length = ((data[pos + 2] & 0xFF) << 8) | (data[pos + 3] & 0xFF);
+            int segment = pos + 4;
+            if (marker == 0xE1 && length >= 8 && segment + 6 <= data.length
+                    && data[segment] == 'E' && data[segment + 1] == 'x' && data[segment + 2] == 'i' && data[segment + 3] == 'f') {
+                return tiffOrientation(data, segment + 6, Math.min(data.length, pos + 2 + length));
+            }
+            pos += 2 + length;
+        }
+        return 1;
+    }
+
+    private static int tiffOrientation(byte[] data, int tiff, int end) {
+        if (tiff + 8 > end) {
+            return 1;
+        }
+        boolean little = data[tiff] == 'I' && data[tiff + 1] == 'I';
+        int ifd = tiff + readInt(data, tiff + 4, little);
+        if (ifd + 2 > end || ifd < tiff) {
+            return 1;
+        }
+        int entries = readShort(data, ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                return 1;
+            }
+            if (readShort(data, entry, little) == 0x0112) {
+                int value = readShort(data, entry + 8, little);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] d, int p, boolean little) {
+        return little
+                ? (d[p] & 0xFF) | ((d[p + 1] & 0xFF) << 8)
+                : ((d[p] & 0xFF) << 8) | (d[p + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] d, int p, boolean little) {
+        return little
+                ? (d[p] & 0xFF) | ((d[p + 1] & 0xFF) << 8) | ((d[p + 2] & 0xFF) << 16) | ((d[p + 3] & 0xFF) << 24)
+                : ((d[p] & 0xFF) << 24) | ((d[p + 1] & 0xFF) << 16) | ((d[p + 2] & 0xFF) << 8) | (d[p + 3] & 0xFF);
+    }
+
+    private static DistributionSummary bytes(MeterRegistry registry, String stage) {
+        return DistributionSummary.builder("claim.ocr.preprocess.bytes")
+                .baseUnit("bytes")
+                .tag("stage", stage)
+                .register(registry);
+    }
+}
@@ -0,0 +1,259 @@
+package com.tejas.metlife.claimprocessor.service.ocr;
+
+import com.tejas.metlife.claimprocessor.dto.DocumentBuffer;
+import com.tejas.metlife.claimprocessor.service.DocumentAIService;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Routes each document to the cheapest way of reading it, based on its leading bytes rather
+ * than the client-supplied content type:
+ * <ul>
+ *   <li>PDF pages with a text layer are read locally with PDFBox, no model call;</li>
+ *   <li>PDF pages without one (scans) are rendered and OCR'd concurrently, cached per page;</li>
+ *   <li>everything else goes to GPT-4o Vision as before.</li>
+ * </ul>
+ * In {@code batched} mode ({@code claim.ocr.mode}) the images of one claim step are sent
+ * together in a single vision request.
+ *
+ * The {@code *Async} methods do their local work (sniffing, rendering, preprocessing) on the
+ * calling thread and return while the model calls are in flight.
+ */
+@Service
+public class OcrEngine {
+
+    public enum DocumentKind { PDF, IMAGE, UNKNOWN }
+
+    private final DocumentAIService documentAIService;
+    private final OcrResultCache ocrResultCache;
+
+    @Value("${claim.ocr.mode:batched}")
+    private String mode;
+
+    @Value("${claim.ocr.pdf.min-text-chars:30}")
+    private int minTextChars;
+
+    @Value("${claim.ocr.pdf.render-dpi:150}")
+    private float renderDpi;
+
+    @Value("${claim.ocr.pdf.max-pages:20}")
+    private int maxPages;
+
+    public OcrEngine(DocumentAIService documentAIService,
+                     OcrResultCache ocrResultCache) {
+        this.documentAIService = documentAIService;
+        this.ocrResultCache = ocrResultCache;
+    }
+
+    public String extractText(MultipartFile file) {
+        return extractTextAsync(file).join();
+    }
+
+    public CompletableFuture<String> extractTextAsync(MultipartFile file) {
+        DocumentKind kind = sniff(file);
+        System.out.println("[OcrEngine] " + file.getOriginalFilename() + " detected as " + kind
+                + " (declared " + file.getContentType() + ")");
+        if (kind == DocumentKind.PDF) {
+            try {
+                return extractPdfAsync(file);
+            } catch (IOException e) {
+                System.err.println("[OcrEngine] ⚠ PDF could not be read: " + e.getMessage());
+                return CompletableFuture.completedFuture("");
+            }
+        }
+        return documentAIService.extractTextFromImageAsync(file);
+    }
+
+    public boolean isBatched() {
+        return "batched".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Read several documents at once: PDFs on their own (their local work on {@code executor}),
+     * all images in one batched vision request. Keys are document labels.
+     */
+    public CompletableFuture<Map<String, String>> extractTextsAsync(Map<String, MultipartFile> documents, Executor executor) {
+        Map<String, MultipartFile> images = new LinkedHashMap<>();
+        Map<String, CompletableFuture<String>> pdfs = new LinkedHashMap<>();
+        for (Map.Entry<String, MultipartFile> entry : documents.entrySet()) {
+            if (sniff(entry.getValue()) == DocumentKind.PDF) {
+                MultipartFile file = entry.getValue();
+                pdfs.put(entry.getKey(), CompletableFuture.supplyAsync(() -> extractTextAsync(file), executor)
+                        .thenCompose(text -> text));
+            } else {
+                images.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        CompletableFuture<Map<String, String>> imageTexts;
+        if (images.size() == 1) {
+            Map.Entry<String, MultipartFile> only = images.entrySet().iterator().next();
+            imageTexts = documentAIService.extractTextFromImageAsync(only.getValue())
+                    .thenApply(text -> Map.of(only.getKey(), text));
+        } else if (!images.isEmpty()) {
+            imageTexts = documentAIService.extractTextFromImagesAsync(images);
+        } else {
+            imageTexts = CompletableFuture.completedFuture(Map.of());
+        }
+
+        List<CompletableFuture<?>> all = new ArrayList<>(pdfs.values());
+        all.add(imageTexts);
+        return CompletableFuture.allOf(all.toArray(new CompletableFuture[0])).thenApply(done -> {
+            Map<String, String> texts = new LinkedHashMap<>(imageTexts.join());
+            pdfs.forEach((label, future) -> texts.put(label, future.join()));
+            return texts;
+        });
+    }
+
+    /**
+     * Classify a document by its magic bytes.
+     */
+    public static DocumentKind sniff(MultipartFile file) {
+        byte[] head;
+        try (InputStream in = file.getInputStream()) {
+            head = in.readNBytes(12);
+        } catch (IOException e) {
+            return DocumentKind.UNKNOWN;
+        }
+        return sniff(head);
+    }
+
+    static DocumentKind sniff(byte[] h) {
+        if (startsWith(h, '%', 'P', 'D', 'F', '-')) {
+            return DocumentKind.PDF;
+        }
+        if (startsWith(h, 0xFF, 0xD8, 0xFF)                                  // JPEG
+                || startsWith(h, 0x89, 'P', 'N', 'G')                        // PNG
+                || startsWith(h, 'G', 'I', 'F', '8')                         // GIF
+                || startsWith(h, 'I', 'I', 0x2A, 0x00)                       // TIFF little-endian
+                || startsWith(h, 'M', 'M', 0x00, 0x2A)                       // TIFF big-endian
+                || startsWith(h, 'B', 'M')                                   // BMP
+                || (startsWith(h, 'R', 'I', 'F', 'F') && h.length >= 12
+                    && h[8] == 'W' && h[9] == 'E' && h[10] == 'B' && h[11] == 'P')) {
+            return DocumentKind.IMAGE;
+        }
+        return DocumentKind.UNKNOWN;
+    }
+
+    private CompletableFuture<String> extractPdfAsync(MultipartFile file) throws IOException {
+        byte[] contentHash = DocumentBuffer.contentHash(file);
+        String[] pageTexts;
+        List<CompletableFuture<Void>> pageOcr = new ArrayList<>();
+        int textPages = 0;
+        int scannedPages = 0;
+        int cachedPages = 0;
+
+        try (PDDocument document = load(file)) {
+            int pages = Math.min(document.getNumberOfPages(), maxPages);
+            if (document.getNumberOfPages() > maxPages) {
+                System.out.println("[OcrEngine] ⚠ PDF has " + document.getNumberOfPages() + " pages, reading the first " + maxPages);
+            }
+            PDFTextStripper stripper = new PDFTextStripper();
+            PDFRenderer renderer = new PDFRenderer(document);
+            pageTexts = new String[pages];
+
+            for (int page = 0; page < pages; page++) {
+                stripper.setStartPage(page + 1);
+                stripper.setEndPage(page + 1);
+                String text = stripper.getText(document).trim();
+                if (meaningfulChars(text) >= minTextChars) {
+                    pageTexts[page] = text;
+                    textPages++;
+                    continue;
+                }
+
+                scannedPages++;
+                String cacheKey = documentAIService.cacheKey(contentHash, "pdf-page:" + page + ":" + renderDpi);
+                Optional<String> cached = ocrResultCache.get(cacheKey);
+                if (cached.isPresent()) {
+                    pageTexts[page] = cached.get();
+                    cachedPages++;
+                    continue;
+                }
+
+                // PDFBox rendering is not thread-safe per document - render here, OCR concurrently
+                byte[] image = renderPage(renderer, page);
+                int index = page;
+                pageOcr.add(documentAIService.extractTextFromImageAsync(image, "image/jpeg").thenAccept(pageText -> {
+                    ocrResultCache.put(cacheKey, pageText);
+                    pageTexts[index] = pageText;
+                }));
+            }
+        }
+
+        System.out.println("[OcrEngine] ✓ PDF read: " + textPages + " text-layer page(s), " + scannedPages
+                + " scanned page(s) (" + cachedPages + " from cache, " + pageOcr.size() + " sent to OCR)");
+        // allOf() also publishes the page texts written by the OCR callbacks
+        return CompletableFuture.allOf(pageOcr.toArray(new CompletableFuture[0])).thenApply(done -> {
+            StringBuilder sb = new StringBuilder();
+            for (String text : pageTexts) {
+                if (text == null || text.isEmpty()) {
+                    continue;
+                }
+                if (sb.length() > 0) {
+                    sb.append("\n\n");
+                }
+                sb.append(text);
+            }
+            return sb.toString();
+        });
+    }
+
+    private static PDDocument load(MultipartFile file) throws IOException {
+        if (file instanceof DocumentBuffer buffer) {
+            return Loader.loadPDF(buffer.getPath().toFile());
+        }
+        try (InputStream in = file.getInputStream()) {
+            return Loader.loadPDF(new RandomAccessReadBuffer(in));
+        }
+    }
+
+    private byte[] renderPage(PDFRenderer renderer, int page) throws IOException {
+        BufferedImage image = renderer.renderImageWithDPI(page, renderDpi, ImageType.GRAY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static int meaningfulChars(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isLetterOrDigit(text.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean startsWith(byte[] data, int... prefix) {
+        if (data.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((data[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
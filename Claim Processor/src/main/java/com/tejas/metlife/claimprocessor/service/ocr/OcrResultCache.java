@@ -0,0 +1,250 @@
+package com.tejas.metlife.claimprocessor.service.ocr;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed cache of OCR results.
+ *
+ * Entries are keyed by the SHA-256 of the document bytes plus the model and prompt version,
+ * so a changed prompt or deployment never serves stale text. Lookups go to an in-memory LRU
+ * first, then to a local disk directory whose total size is capped (least recently used files
+ * are deleted first). Hits and misses are counted as {@code claim.ocr.cache} tagged by tier.
+ */
+@Component
+public class OcrResultCache {
+
+    private static final String SUFFIX = ".txt";
+
+    private final boolean enabled;
+    private final int memoryEntries;
+    private final Path diskDir;
+    private final long diskMaxBytes;
+
+    private final Map<String, String> memory;
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter diskHits;
+    private final Counter diskMisses;
+
+    public OcrResultCache(@Value("${claim.ocr.cache.enabled:true}") boolean enabled,
+                          @Value("${claim.ocr.cache.memory-entries:500}") int memoryEntries,
+                          @Value("${claim.ocr.cache.disk-dir:${java.io.tmpdir}/claim-ocr-cache}") String diskDir,
+                          @Value("${claim.ocr.cache.disk-max-mb:256}") long diskMaxMb,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.memoryEntries = memoryEntries;
+        this.diskDir = diskDir != null && !diskDir.isBlank() ? Paths.get(diskDir) : null;
+        this.diskMaxBytes = diskMaxMb * 1024 * 1024;
+        this.memory = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > OcrResultCache.this.memoryEntries;
+            }
+        };
+
+        this.memoryHits = counter(meterRegistry, "memory", "hit");
+        this.memoryMisses = counter(meterRegistry, "memory", "miss");
+        this.diskHits = counter(meterRegistry, "disk", "hit");
+        this.diskMisses = counter(meterRegistry, "disk", "miss");
+        Gauge.builder("claim.ocr.cache.disk.bytes", diskBytes, AtomicLong::get).register(meterRegistry);
+
+        initDisk();
+    }
+
+    /**
+     * Cache key for a document OCR'd with the given model and prompt version.
+     */
+    public static String key(byte[] contentSha256, String model, String promptVersion) {
+        MessageDigest digest = sha256();
+        digest.update(contentSha256);
+        digest.update(("|" + model + "|" + promptVersion).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public Optional<String> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String text;
+        synchronized (memory) {
+            text = memory.get(key);
+        }
+        if (text != null) {
+            memoryHits.increment();
+            return Optional.of(text);
+        }
+        memoryMisses.increment();
+
+        text = readDisk(key);
+        if (text != null) {
+            diskHits.increment();
+            synchronized (memory) {
+                memory.put(key, text);
+            }
+            return Optional.of(text);
+        }
+        if (diskDir != null) {
+            diskMisses.increment();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Store an OCR result. Empty text (a failed extraction) is never cached.
+     */
+    public void put(String key, String text) {
+        if (!enabled || text == null || text.isEmpty()) {
+            return;
+        }
+        synchronized (memory) {
+            memory.put(key, text);
+        }
+        writeDisk(key, text);
+    }
+
+    // ---- Disk tier ----
+
+    private void initDisk() {
+        if (!enabled || diskDir == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(diskDir);
+            long total = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(diskDir, "*" + SUFFIX)) {
+                for (Path file : files) {
+                    total += Files.size(file);
+                }
+            }
+            diskBytes.set(total);
+            System.out.println("[OcrResultCache] ✓ Disk cache at " + diskDir + " (" + total / 1024 + " KB)");
+        } catch (IOException e) {
+            System.err.println("[OcrResultCache] ⚠ Disk cache unavailable: " + e.getMessage());
+        }
+    }
+
+    private String readDisk(String key) {
+        if (diskDir == null) {
+            return null;
+        }
+        Path file = diskDir.resolve(key + SUFFIX);
+        try {
+            String text = Files.readString(file, StandardCharsets.UTF_8);
+            // Modification time doubles as last-access time for eviction
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return text;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeDisk(String key, String text) {
+        if (diskDir == null) {
+            return;
+        }
+        Path file = diskDir.resolve(key + SUFFIX);
+        if (Files.exists(file)) {
+            return;
+        }
+        try {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            Path tmp = Files.createTempFile(diskDir, key, ".tmp");
+            Files.write(tmp, bytes);
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (diskBytes.addAndGet(bytes.length) > diskMaxBytes) {
+                evictDisk();
+            }
+        } catch (IOException e) {
+            System.err.println("[OcrResultCache] ⚠ Could not write cache entry: " + e.getMessage());
+        }
+    }
+
+    /** Delete least recently used files until the directory is back under 90% of its cap. */
+    private void evictDisk() {
+        synchronized (evictionLock) {
+            if (diskBytes.get() <= diskMaxBytes) {
+                return;
+            }
+            long target = diskMaxBytes * 9 / 10;
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(diskDir, "*" + SUFFIX)) {
+                stream.forEach(files::add);
+            } catch (IOException e) {
+                System.err.println("[OcrResultCache] ⚠ Disk eviction failed: " + e.getMessage());
+                return;
+            }
+            files.sort(Comparator.comparingLong(OcrResultCache::lastModified));
+
+            int evicted = 0;
+            for (Path file : files) {
+                if (diskBytes.get() <= target) {
+                    break;
+                }
+                try {
+                    long size = Files.size(file);
+                    if (Files.deleteIfExists(file)) {
+                        diskBytes.addAndGet(-size);
+                        evicted++;
+                    }
+                } catch (IOException ignored) {
+                    // Removed concurrently or locked - try the next one
+                }
+            }
+            System.out.println("[OcrResultCache] Evicted " + evicted + " disk entries, " + diskBytes.get() / 1024 + " KB remain");
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("claim.ocr.cache")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
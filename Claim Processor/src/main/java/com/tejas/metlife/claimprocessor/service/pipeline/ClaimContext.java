@@ -0,0 +1,296 @@
+package com.tejas.metlife.claimprocessor.service.pipeline;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimDocumentType;
+import com.tejas.metlife.claimprocessor.dto.ClaimResponse;
+import com.tejas.metlife.claimprocessor.dto.ClaimSubmission;
+import com.tejas.metlife.claimprocessor.dto.VerifiedInstitution;
+import com.tejas.metlife.claimprocessor.model.Policy;
+import com.tejas.metlife.claimprocessor.service.matching.DocumentMatcher;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * State of one claim as it moves through the pipeline.
+ * Stages in a parallel step write to it concurrently, so per-document results live in concurrent maps.
+ *
+ * A claim ends either with a {@link ClaimDecision} (persisted by the final stage) or with a
+ * direct {@link ClaimResponse} for input errors that are not recorded as claims.
+ *
+ * Each stage attempt works on an {@link #attempt()} copy that is {@link #merge merged} back only
+ * when the attempt succeeds, so a timed-out attempt whose document futures are still running
+ * cannot write into the state its retry or the next stage sees.
+ */
+public class ClaimContext {
+
+    private final ClaimSubmission submission;
+    private final String presetClaimRef;
+    private final ClaimContext parent;
+
+    private volatile String claimRef;
+    private volatile Policy policy;
+    private final Map<ClaimDocumentType, String> documentUrls = new ConcurrentHashMap<>();
+    private final Map<ClaimDocumentType, String> documentTexts = new ConcurrentHashMap<>();
+
+    private volatile DocumentMatcher.MatchReport matchReport;
+
+    private volatile ClaimDecision decision;
+    private volatile List<VerifiedInstitution> verifiedInstitutions = List.of();
+    private volatile ClaimResponse response;
+
+    public ClaimContext(ClaimSubmission submission, String presetClaimRef) {
+        this.submission = submission;
+        this.presetClaimRef = presetClaimRef;
+        this.parent = null;
+    }
+
+    private ClaimContext(ClaimContext parent) {
+        this.submission = parent.submission;
+        this.presetClaimRef = parent.presetClaimRef;
+        this.parent = parent;
+        this.claimRef = parent.claimRef;
+        this.policy = parent.policy;
+        this.documentUrls.putAll(parent.documentUrls);
+        this.documentTexts.putAll(parent.documentTexts);
+        this.matchReport = parent.matchReport;
+        this.decision = parent.decision;
+        this.verifiedInstitutions = parent.verifiedInstitutions;
+        this.response = parent.response;
+    }
+
+    /** Scratch copy for one stage attempt, starting from the current state. */
+    public ClaimContext attempt() {
+        return new ClaimContext(this);
+    }
+
+    /** Apply the writes of a successful {@link #attempt()}. */
+    public void merge(ClaimContext attempt) {
+        if (attempt.parent != this) {
+            throw new IllegalArgumentException("Not an attempt of this claim context");
+        }
+        if (attempt.policy != null) {
+            policy = attempt.policy;
+        }
+        documentUrls.putAll(attempt.documentUrls);
+        documentTexts.putAll(attempt.documentTexts);
+        if (attempt.matchReport != null) {
+            matchReport = attempt.matchReport;
+        }
+        if (attempt.decision != null) {
+            decide(attempt.decision);
+        }
+        verifiedInstitutions = attempt.verifiedInstitutions;
+        if (attempt.response != null) {
+            respond(attempt.response);
+        }
+    }
+
+    public ClaimSubmission getSubmission() {
+        return submission;
+    }
+
+    public String getPolicyNumber() {
+        return submission.getPolicyNumber();
+    }
+
+    /** Claim reference already handed to the client (async mode), or null. */
+    public String getPresetClaimRef() {
+        return presetClaimRef;
+    }
+
+    /**
+     * Reference this claim is recorded under; assigned once so retried writes hit the same row.
+     */
+    public synchronized String claimReference(Supplier<String> generator) {
+        // Shared with the claim, so a retried persist reuses the first attempt's reference
+        if (parent != null) {
+            claimRef = parent.claimReference(generator);
+            return claimRef;
+        }
+        if (claimRef == null) {
+            claimRef = presetClaimRef != null ? presetClaimRef : generator.get();
+        }
+        return claimRef;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(Policy policy) {
+        this.policy = policy;
+    }
+
+    // ---- Documents ----
+
+    public MultipartFile getDocument(ClaimDocumentType type) {
+        Map<String, MultipartFile> files = submission.getFiles();
+        if (files == null) {
+            return null;
+        }
+        MultipartFile file = files.get(type.getFieldName());
+        return file != null && !file.isEmpty() ? file : null;
+    }
+
+    /** Provided documents among the given types, in label order. */
+    public List<ClaimDocumentType> providedDocuments(List<ClaimDocumentType> types) {
+        List<ClaimDocumentType> provided = new ArrayList<>();
+        for (ClaimDocumentType type : ClaimDocumentType.values()) {
+            if (types.contains(type) && getDocument(type) != null) {
+                provided.add(type);
+            }
+        }
+        return provided;
+    }
+
+    public void putDocumentUrl(ClaimDocumentType type, String url) {
+        documentUrls.put(type, url);
+    }
+
+    public String getDocumentUrl(ClaimDocumentType type) {
+        return documentUrls.get(type);
+    }
+
+    public void putDocumentText(ClaimDocumentType type, String text) {
+        documentTexts.put(type, text);
+    }
+
+    public String getDocumentText(ClaimDocumentType type) {
+        return documentTexts.get(type);
+    }
+
+    public boolean hasDocumentText(ClaimDocumentType type) {
+        return documentTexts.containsKey(type);
+    }
+
+    /** Extracted text per document, keyed by display name, in fixed order. */
+    public Map<String, String> documentTextsByName() {
+        Map<String, String> texts = new LinkedHashMap<>();
+        for (ClaimDocumentType type : ClaimDocumentType.values()) {
+            String text = documentTexts.get(type);
+            if (text != null) {
+                texts.put(type.getDisplayName(), text);
+            }
+        }
+        return texts;
+    }
+
+    /** Latest consistency-check matches, or null before the check has run. */
+    public DocumentMatcher.MatchReport getMatchReport() {
+        return matchReport;
+    }
+
+    public void setMatchReport(DocumentMatcher.MatchReport matchReport) {
+        this.matchReport = matchReport;
+    }
+
+    // ---- Outcome ----
+
+    public ClaimDecision getDecision() {
+        return decision;
+    }
+
+    public void decide(ClaimDecision decision) {
+        if (this.decision == null) {
+            this.decision = decision;
+        }
+    }
+
+    /** Institutions the agent verified for the decision; learned once the claim is stored. */
+    public List<VerifiedInstitution> getVerifiedInstitutions() {
+        return verifiedInstitutions;
+    }
+
+    public void setVerifiedInstitutions(List<VerifiedInstitution> verifiedInstitutions) {
+        this.verifiedInstitutions = verifiedInstitutions != null ? List.copyOf(verifiedInstitutions) : List.of();
+    }
+
+    public ClaimResponse getResponse() {
+        return response;
+    }
+
+    /** End the claim with a response; used for input errors and by the persist stage. */
+    public void respond(ClaimResponse response) {
+        this.response = response;
+    }
+
+    /** True once no further evaluation stages should run. */
+    public boolean isSettled() {
+        return decision != null || response != null;
+    }
+
+    // ---- Agent input ----
+
+    /** Filled form section of the agent input. */
+    public String formSection() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== FILLED FORM INFORMATION ===\n");
+        sb.append("Policy Number: ").append(submission.getPolicyNumber()).append("\n");
+        sb.append("Policy Holder Name: ").append(orNa(submission.getPolicyHolderName())).append("\n");
+        sb.append("Cause of Death: ").append(submission.getCauseOfDeath()).append("\n");
+        sb.append("Deceased Full Name: ").append(submission.getDeceasedFullName()).append("\n");
+        sb.append("Deceased Email: ").append(orNa(submission.getDeceasedEmail())).append("\n");
+        sb.append("Deceased Mobile: ").append(orNa(submission.getDeceasedMobile())).append("\n");
+        sb.append("Deceased Address: ").append(orNa(submission.getDeceasedAddress())).append("\n");
+        sb.append("Nominee Full Name: ").append(orNa(submission.getNomineeFullName())).append("\n");
+        sb.append("Nominee Relationship: ").append(orNa(submission.getNomineeRelationship())).append("\n");
+        sb.append("Nominee Mobile: ").append(orNa(submission.getNomineeMobile())).append("\n\n");
+        return sb.toString();
+    }
+
+    /** Policy database section of the agent input. */
+    public String policySection() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== POLICY DATABASE INFORMATION ===\n");
+        sb.append("Policy Number (DB): ").append(policy.getPolicyNumber()).append("\n");
+        sb.append("Policy Holder Name (DB): ").append(policy.getPolicyHolderName()).append("\n");
+        sb.append("Policy Status (DB): ").append(policy.getStatus()).append("\n");
+        sb.append("Issue Date: ").append(policy.getIssueDate()).append("\n");
+        sb.append("Maturity Date: ").append(policy.getMaturityDate()).append("\n\n");
+        return sb.toString();
+    }
+
+    /** OCR text of every extracted document, labeled and in fixed order. */
+    public String documentSections() {
+        return documentSections(documentTextsByLabel());
+    }
+
+    /** Extracted text per document, keyed by section label, in fixed order. */
+    public Map<String, String> documentTextsByLabel() {
+        Map<String, String> texts = new LinkedHashMap<>();
+        for (ClaimDocumentType type : ClaimDocumentType.values()) {
+            String text = documentTexts.get(type);
+            if (text != null) {
+                texts.put(type.getLabel(), text);
+            }
+        }
+        return texts;
+    }
+
+    /** Render labeled document texts (e.g. after compaction) as agent input sections. */
+    public static String documentSections(Map<String, String> textsByLabel) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : textsByLabel.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append("\n\n");
+            }
+            sb.append("=== ").append(entry.getKey()).append(" ===\n");
+            sb.append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    /** Form, policy and document sections combined, as sent to the agent. */
+    public String combinedText() {
+        return formSection() + policySection() + documentSections();
+    }
+
+    private static String orNa(String value) {
+        return value != null ? value : "N/A";
+    }
+}
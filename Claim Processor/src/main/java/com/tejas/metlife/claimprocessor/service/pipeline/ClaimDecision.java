@@ -0,0 +1,20 @@
+package com.tejas.metlife.claimprocessor.service.pipeline;
+
+/**
+ * Outcome recorded on a claim by a pipeline stage.
+ *
+ * @param status             APPROVED, REJECTED or MANUAL_REVIEW
+ * @param reason             reason stored on the claim record
+ * @param message            message returned to the claimant
+ * @param updatePolicyStatus whether the policy status should follow the decision
+ */
+public record ClaimDecision(String status, String reason, String message, boolean updatePolicyStatus) {
+
+    public static ClaimDecision of(String status, String reason, boolean updatePolicyStatus) {
+        return new ClaimDecision(status, reason, reason, updatePolicyStatus);
+    }
+
+    public static ClaimDecision manualReview(String reason) {
+        return of("MANUAL_REVIEW", reason, true);
+    }
+}
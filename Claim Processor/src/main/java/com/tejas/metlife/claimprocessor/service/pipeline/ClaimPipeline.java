@@ -0,0 +1,62 @@
+package com.tejas.metlife.claimprocessor.service.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ordered configuration of claim stages. Stages in the same step run concurrently;
+ * the final stage records whatever decision the earlier steps reached.
+ */
+public class ClaimPipeline {
+
+    private final String name;
+    private final List<List<ClaimStage>> steps;
+    private final ClaimStage finalStage;
+
+    private ClaimPipeline(String name, List<List<ClaimStage>> steps, ClaimStage finalStage) {
+        this.name = name;
+        this.steps = List.copyOf(steps);
+        this.finalStage = finalStage;
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<List<ClaimStage>> getSteps() {
+        return steps;
+    }
+
+    public ClaimStage getFinalStage() {
+        return finalStage;
+    }
+
+    public static class Builder {
+
+        private final String name;
+        private final List<List<ClaimStage>> steps = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder stage(ClaimStage stage) {
+            steps.add(List.of(stage));
+            return this;
+        }
+
+        /** Stages that do not depend on each other's output and may run side by side. */
+        public Builder parallel(ClaimStage... stages) {
+            steps.add(List.of(stages));
+            return this;
+        }
+
+        public ClaimPipeline finish(ClaimStage finalStage) {
+            return new ClaimPipeline(name, steps, finalStage);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.tejas.metlife.claimprocessor.service.pipeline;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs claim pipelines. Every stage attempt executes on the stage executor so it can be
+ * timed out, holds a per-stage concurrency permit while it runs, and is recorded as
+ * {@code claim.pipeline.stage} timer samples tagged by pipeline, stage and outcome.
+ * Attempts run on a {@link ClaimContext#attempt() scratch copy} of the claim that is merged back
+ * only on success; an attempt the executor rejects counts as a failed attempt.
+ */
+@Component
+public class ClaimPipelineEngine {
+
+    private static final String PROPERTY_PREFIX = "claim.pipeline.stage.";
+
+    private static final long DEFAULT_TIMEOUT_MS = 60_000;
+    private static final int DEFAULT_MAX_CONCURRENCY = 32;
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final AsyncTaskExecutor stageExecutor;
+    private final Map<String, Semaphore> stagePermits = new ConcurrentHashMap<>();
+
+    public ClaimPipelineEngine(Environment environment,
+                               MeterRegistry meterRegistry,
+                               @Qualifier("pipelineStageExecutor") AsyncTaskExecutor stageExecutor) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.stageExecutor = stageExecutor;
+    }
+
+    public ClaimResponse run(ClaimPipeline pipeline, ClaimContext context) {
+        System.out.println("[ClaimPipelineEngine] Running '" + pipeline.getName() + "' pipeline for policy: " + context.getPolicyNumber());
+
+        for (List<ClaimStage> step : pipeline.getSteps()) {
+            if (context.isSettled()) {
+                break;
+            }
+            // Start every stage of the step first so parallel stages overlap, then wait for each
+            List<StageExecution> executions = new ArrayList<>();
+            for (ClaimStage stage : step) {
+                StageExecution execution = start(pipeline, stage, context);
+                if (execution != null) {
+                    executions.add(execution);
+                }
+            }
+            for (StageExecution execution : executions) {
+                Throwable failure = await(execution);
+                if (failure != null) {
+                    System.err.println("[ClaimPipelineEngine] ✗ Stage '" + execution.stage.name() + "' failed: " + failure.getMessage());
+                    execution.stage.onFailure(context, failure);
+                }
+            }
+        }
+
+        if (context.getResponse() == null) {
+            if (context.getDecision() == null) {
+                context.decide(ClaimDecision.manualReview(
+                        "Claim pipeline '" + pipeline.getName() + "' finished without a decision. Manual review required."));
+            }
+            StageExecution finalExecution = start(pipeline, pipeline.getFinalStage(), context);
+            Throwable failure = await(finalExecution);
+            if (failure != null) {
+                throw new IllegalStateException("Final stage '" + pipeline.getFinalStage().name() + "' failed: " + failure.getMessage(), failure);
+            }
+        }
+
+        return context.getResponse();
+    }
+
+    private StageExecution start(ClaimPipeline pipeline, ClaimStage stage, ClaimContext context) {
+        StageSettings settings = settingsFor(stage.name());
+        if (!settings.enabled() && stage.skippable()) {
+            System.out.println("[ClaimPipelineEngine] Skipping disabled stage '" + stage.name() + "'");
+            record(pipeline, stage, "skipped", 0);
+            return null;
+        }
+        StageExecution execution = new StageExecution(pipeline, stage, settings, context);
+        execution.submit();
+        return execution;
+    }
+
+    /**
+     * Wait for a stage, retrying as configured.
+     *
+     * @return null on success, otherwise the last failure
+     */
+    private Throwable await(StageExecution execution) {
+        StageSettings settings = execution.settings;
+        for (int attempt = 0; ; attempt++) {
+            Throwable failure;
+            String outcome;
+            try {
+                execution.future.get(settings.timeoutMs(), TimeUnit.MILLISECONDS);
+                execution.context.merge(execution.attemptContext);
+                record(execution.pipeline, execution.stage, "success", System.nanoTime() - execution.startNanos);
+                return null;
+            } catch (TimeoutException e) {
+                execution.future.cancel(true);
+                failure = new TimeoutException("Stage '" + execution.stage.name() + "' timed out after " + settings.timeoutMs() + " ms");
+                outcome = "timeout";
+            } catch (ExecutionException e) {
+                failure = e.getCause() != null ? e.getCause() : e;
+                outcome = failure instanceof RejectedExecutionException ? "rejected" : "failure";
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                execution.future.cancel(true);
+                record(execution.pipeline, execution.stage, "interrupted", System.nanoTime() - execution.startNanos);
+                return e;
+            }
+            record(execution.pipeline, execution.stage, outcome, System.nanoTime() - execution.startNanos);
+
+            if (attempt >= settings.retries()) {
+                return failure;
+            }
+            System.out.println("[ClaimPipelineEngine] Retrying stage '" + execution.stage.name() + "' (attempt " + (attempt + 2) + ") after " + outcome);
+            Counter.builder("claim.pipeline.stage.retries")
+                    .tag("pipeline", execution.pipeline.getName())
+                    .tag("stage", execution.stage.name())
+                    .register(meterRegistry)
+                    .increment();
+            execution.submit();
+        }
+    }
+
+    private void record(ClaimPipeline pipeline, ClaimStage stage, String outcome, long nanos) {
+        Timer.builder("claim.pipeline.stage")
+                .description("Claim pipeline stage duration")
+                .tag("pipeline", pipeline.getName())
+                .tag("stage", stage.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (!"skipped".equals(outcome)) {
+            System.out.println("[ClaimPipelineEngine] Stage '" + stage.name() + "' " + outcome + " in " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms");
+        }
+    }
+
+    StageSettings settingsFor(String stageName) {
+        String prefix = PROPERTY_PREFIX + stageName + ".";
+        return new StageSettings(
+                environment.getProperty(prefix + "timeout-ms", Long.class, DEFAULT_TIMEOUT_MS),
+                environment.getProperty(prefix + "max-concurrency", Integer.class, DEFAULT_MAX_CONCURRENCY),
+                environment.getProperty(prefix + "retries", Integer.class, 0),
+                environment.getProperty(prefix + "enabled", Boolean.class, true));
+    }
+
+    private Semaphore permitsFor(String stageName, int maxConcurrency) {
+        return stagePermits.computeIfAbsent(stageName, name -> {
+            Semaphore semaphore = new Semaphore(maxConcurrency, true);
+            Gauge.builder("claim.pipeline.stage.active", semaphore, s -> maxConcurrency - s.availablePermits())
+                    .description("Claims currently inside the stage")
+                    .tag("stage", name)
+                    .register(meterRegistry);
+            return semaphore;
+        });
+    }
+
+    /** One in-flight attempt of a stage. */
+    private final class StageExecution {
+
+        private final ClaimPipeline pipeline;
+        private final ClaimStage stage;
+        private final StageSettings settings;
+        private final ClaimContext context;
+        private Future<?> future;
+        private ClaimContext attemptContext;
+        private long startNanos;
+
+        private StageExecution(ClaimPipeline pipeline, ClaimStage stage, StageSettings settings, ClaimContext context) {
+            this.pipeline = pipeline;
+            this.stage = stage;
+            this.settings = settings;
+            this.context = context;
+        }
+
+        private void submit() {
+            Semaphore permits = permitsFor(stage.name(), settings.maxConcurrency());
+            ClaimContext attempt = context.attempt();
+            attemptContext = attempt;
+            startNanos = System.nanoTime();
+            // The permit is taken and released on the worker thread, so a cancelled or timed-out
+            // attempt keeps counting against the limit until it has really stopped.
+            try {
+                future = stageExecutor.submit(() -> {
+                    if (!permits.tryAcquire(settings.timeoutMs(), TimeUnit.MILLISECONDS)) {
+                        throw new TimeoutException("No free slot in stage '" + stage.name() + "'");
+                    }
+                    try {
+                        stage.execute(attempt);
+                        return null;
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Saturated stage executor (TaskRejectedException) - retried or handed to onFailure like any failure
+                future = CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+}
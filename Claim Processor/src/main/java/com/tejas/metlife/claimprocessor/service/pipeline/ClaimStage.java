@@ -0,0 +1,27 @@
+package com.tejas.metlife.claimprocessor.service.pipeline;
+
+/**
+ * One step of the claim pipeline. Timeout, concurrency limit, retries and whether the stage
+ * runs at all are configured per stage name under {@code claim.pipeline.stage.<name>.*}.
+ */
+public interface ClaimStage {
+
+    /** Stable name used for configuration and metrics. */
+    String name();
+
+    void execute(ClaimContext context) throws Exception;
+
+    /** Whether {@code claim.pipeline.stage.<name>.enabled=false} may turn this stage off. */
+    default boolean skippable() {
+        return true;
+    }
+
+    /**
+     * Called after the stage failed or timed out and retries are exhausted.
+     * By default the claim goes to manual review.
+     */
+    default void onFailure(ClaimContext context, Throwable failure) {
+        context.decide(ClaimDecision.manualReview(
+                "Claim processing step '" + name() + "' failed: " + failure.getMessage() + ". Manual review required."));
+    }
+}
@@ -0,0 +1,12 @@
+package com.tejas.metlife.claimprocessor.service.pipeline;
+
+/**
+ * Runtime limits of one pipeline stage.
+ *
+ * @param timeoutMs      maximum time for one attempt, including waiting for a concurrency slot
+ * @param maxConcurrency claims allowed inside the stage at the same time
+ * @param retries        extra attempts after a failure or timeout
+ * @param enabled        false skips the stage (only for skippable stages)
+ */
+public record StageSettings(long timeoutMs, int maxConcurrency, int retries, boolean enabled) {
+}
@@ -0,0 +1,77 @@
+package com.tejas.metlife.claimprocessor.service.pipeline.stage;
+
+import com.tejas.metlife.claimprocessor.dto.AiDecision;
+import com.tejas.metlife.claimprocessor.service.ClaimAiAgentService;
+import com.tejas.metlife.claimprocessor.service.ClaimProgressRecorder;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimContext;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimDecision;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimStage;
+import com.tejas.metlife.claimprocessor.service.prompt.PromptCompactor;
+
+/**
+ * Final fraud and coverage decision by the LangChain4j ClaimAgent.
+ * Document sections are compacted to the token budget first; form and policy sections are sent as is.
+ * Institutions the agent confirmed on an approved claim are handed on to {@link PersistStage},
+ * which records them once the claim is stored.
+ * For async claims the streamed decision is recorded as it arrives, so status polls see it early.
+ */
+public class AiAdjudicationStage implements ClaimStage {
+
+    private final ClaimAiAgentService claimAiAgentService;
+    private final PromptCompactor promptCompactor;
+    private final ClaimProgressRecorder claimProgressRecorder;
+    private final boolean includeSubmissionContext;
+
+    /**
+     * @param includeSubmissionContext true to send the filled form and policy database sections
+     *                                 along with the document text
+     */
+    public AiAdjudicationStage(ClaimAiAgentService claimAiAgentService,
+                               PromptCompactor promptCompactor,
+                               ClaimProgressRecorder claimProgressRecorder,
+                               boolean includeSubmissionContext) {
+        this.claimAiAgentService = claimAiAgentService;
+        this.promptCompactor = promptCompactor;
+        this.claimProgressRecorder = claimProgressRecorder;
+        this.includeSubmissionContext = includeSubmissionContext;
+    }
+
+    @Override
+    public String name() {
+        return "ai-adjudication";
+    }
+
+    @Override
+    public boolean skippable() {
+        return false;
+    }
+
+    @Override
+    public void execute(ClaimContext context) {
+        String documents = ClaimContext.documentSections(promptCompactor.compact(context.documentTextsByLabel()));
+        String agentInput = includeSubmissionContext
+                ? context.formSection() + context.policySection() + documents
+                : documents;
+        System.out.println("\n[COMBINED OCR TEXT FROM ALL DOCUMENTS]\n" + agentInput + "\n[END OCR TEXT]\n");
+
+        System.out.println("[AiAdjudicationStage] Calling AI to validate filled information matches document information");
+        // Only async claims have a row to report progress on while the pipeline runs
+        String presetClaimRef = context.getPresetClaimRef();
+        AiDecision aiDecision = claimAiAgentService.analyzeClaim(agentInput, context.getPolicyNumber(), context.getPolicy(),
+                context.getSubmission().getCauseOfDeath(),
+                presetClaimRef != null ? claimProgressRecorder.listener(presetClaimRef) : null);
+        System.out.println("[AiAdjudicationStage] AI Decision: " + aiDecision.getDecision() + " - Reason: " + aiDecision.getReason());
+
+        context.decide(ClaimDecision.of(aiDecision.getDecision(), aiDecision.getReason(), true));
+
+        if ("APPROVED".equals(aiDecision.getDecision())) {
+            context.setVerifiedInstitutions(aiDecision.getInstitutions());
+        }
+    }
+
+    @Override
+    public void onFailure(ClaimContext context, Throwable failure) {
+        System.out.println("[AiAdjudicationStage] AI failed: " + failure.getMessage());
+        context.decide(ClaimDecision.manualReview("AI analysis failed, manual review required"));
+    }
+}
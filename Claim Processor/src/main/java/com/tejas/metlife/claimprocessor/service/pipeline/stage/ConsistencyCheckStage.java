@@ -0,0 +1,93 @@
+package com.tejas.metlife.claimprocessor.service.pipeline.stage;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimDocumentType;
+import com.tejas.metlife.claimprocessor.dto.ClaimSubmission;
+import com.tejas.metlife.claimprocessor.service.matching.DocumentMatcher;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimContext;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimDecision;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimStage;
+
+/**
+ * Deterministic pre-validation: the policy number and policy holder name from the filled
+ * form must appear in the OCR text of the documents extracted so far, otherwise the claim
+ * is rejected as potential forgery. In incremental mode this runs on the claim form alone.
+ *
+ * All form values are matched in one pass per document with {@link DocumentMatcher}, which
+ * ignores case, spacing and punctuation. Deceased name, nominee and cause of death are
+ * recorded on the context (with the documents they were found in) but do not reject.
+ *
+ * Without claim form text (OCR failed, timed out or read nothing) a mismatch proves nothing,
+ * so the claim goes to manual review instead of being rejected.
+ */
+public class ConsistencyCheckStage implements ClaimStage {
+
+    public static final String POLICY_NUMBER = "policyNumber";
+    public static final String HOLDER_NAME = "policyHolderName";
+    public static final String DECEASED_NAME = "deceasedFullName";
+    public static final String NOMINEE_NAME = "nomineeFullName";
+    public static final String CAUSE_OF_DEATH = "causeOfDeath";
+
+    @Override
+    public String name() {
+        return "consistency-check";
+    }
+
+    @Override
+    public void execute(ClaimContext context) {
+        ClaimSubmission submission = context.getSubmission();
+        String policyNumber = context.getPolicyNumber();
+        String policyHolderName = submission.getPolicyHolderName();
+
+        System.out.println("[ConsistencyCheckStage] ========== VALIDATING POLICY NUMBER & NAME CONSISTENCY ==========");
+        String claimFormText = context.getDocumentText(ClaimDocumentType.CLAIM_FORM);
+        if (claimFormText == null || claimFormText.isBlank()) {
+            System.out.println("[ConsistencyCheckStage] ⚠ No text was read from the claim form - check inconclusive, sending to manual review");
+            context.decide(ClaimDecision.manualReview(
+                    "No text could be read from the claim form, so the policy number and holder name could not be verified. Manual review required."));
+            return;
+        }
+
+        DocumentMatcher matcher = DocumentMatcher.builder()
+                .pattern(POLICY_NUMBER, policyNumber)
+                .pattern(HOLDER_NAME, policyHolderName)
+                .pattern(DECEASED_NAME, submission.getDeceasedFullName())
+                .pattern(NOMINEE_NAME, submission.getNomineeFullName())
+                .pattern(CAUSE_OF_DEATH, submission.getCauseOfDeath())
+                .build();
+        // Only document text counts - the filled form section always contains both values
+        DocumentMatcher.MatchReport report = matcher.scanAll(context.documentTextsByName());
+        context.setMatchReport(report);
+        System.out.println("[ConsistencyCheckStage] Matches by document: " + report);
+
+        boolean policyNumberFound = report.isFound(POLICY_NUMBER);
+        System.out.println("[ConsistencyCheckStage] Policy number '" + policyNumber + "' found in documents: " + policyNumberFound);
+
+        // Policy holder name is only checked when provided
+        boolean policyHolderNameFound = true;
+        if (policyHolderName != null && !policyHolderName.trim().isEmpty()) {
+            policyHolderNameFound = report.isFound(HOLDER_NAME);
+            System.out.println("[ConsistencyCheckStage] Policy holder name '" + policyHolderName + "' found in documents: " + policyHolderNameFound);
+        }
+
+        // If either policy number or name is NOT found in documents → REJECT immediately (fraud)
+        if (!policyNumberFound || !policyHolderNameFound) {
+            System.out.println("[ConsistencyCheckStage] ⚠ CRITICAL MISMATCH DETECTED - Policy number or name in filled form doesn't match documents!");
+            System.out.println("[ConsistencyCheckStage] → Policy Number Match: " + policyNumberFound);
+            System.out.println("[ConsistencyCheckStage] → Policy Holder Name Match: " + policyHolderNameFound);
+
+            String rejectReason;
+            if (!policyNumberFound && !policyHolderNameFound) {
+                rejectReason = "Critical fraud detected: Both policy number '" + policyNumber + "' and policy holder name '" + policyHolderName + "' in filled form do not match the uploaded claim documents. This indicates potential document forgery or incorrect policy information.";
+            } else if (!policyNumberFound) {
+                rejectReason = "Critical fraud detected: Policy number '" + policyNumber + "' in filled form does not match the policy number in uploaded claim documents. This indicates potential document forgery or incorrect policy information.";
+            } else {
+                rejectReason = "Critical fraud detected: Policy holder name '" + policyHolderName + "' in filled form does not match the name in uploaded claim documents. This indicates potential document forgery or incorrect policy information.";
+            }
+
+            context.decide(ClaimDecision.of("REJECTED", rejectReason, true));
+            return;
+        }
+
+        System.out.println("[ConsistencyCheckStage] ✓ Policy number and name validation PASSED");
+    }
+}
@@ -0,0 +1,48 @@
+package com.tejas.metlife.claimprocessor.service.pipeline.stage;
+
+import com.tejas.metlife.claimprocessor.model.Policy;
+import com.tejas.metlife.claimprocessor.service.coverage.CoverageRulesEngine;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimContext;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimDecision;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimStage;
+
+import java.time.LocalDate;
+
+/**
+ * Rejects clear-cut coverage exclusions with {@link CoverageRulesEngine} right after the policy
+ * gate, before any document is uploaded, OCR'd or sent to the agent. Claims the rules cannot
+ * decide continue unchanged; if the engine itself fails, the agent still sees the claim.
+ */
+public class CoverageRulesStage implements ClaimStage {
+
+    private final CoverageRulesEngine coverageRulesEngine;
+
+    public CoverageRulesStage(CoverageRulesEngine coverageRulesEngine) {
+        this.coverageRulesEngine = coverageRulesEngine;
+    }
+
+    @Override
+    public String name() {
+        return "coverage-rules";
+    }
+
+    @Override
+    public void execute(ClaimContext context) {
+        Policy policy = context.getPolicy();
+        if (policy == null) {
+            return;
+        }
+        String causeOfDeath = context.getSubmission().getCauseOfDeath();
+        coverageRulesEngine.evaluate(policy, causeOfDeath, LocalDate.now()).ifPresentOrElse(
+                verdict -> {
+                    System.out.println("[CoverageRulesStage] ⚠ Rule '" + verdict.rule() + "' rejects the claim: " + verdict.reason());
+                    context.decide(ClaimDecision.of("REJECTED", verdict.reason(), true));
+                },
+                () -> System.out.println("[CoverageRulesStage] ✓ No hard coverage rule applies (cause: " + causeOfDeath + ") - continuing to agent"));
+    }
+
+    @Override
+    public void onFailure(ClaimContext context, Throwable failure) {
+        System.err.println("[CoverageRulesStage] ⚠ Coverage rules failed (" + failure.getMessage() + ") - leaving the decision to the agent");
+    }
+}
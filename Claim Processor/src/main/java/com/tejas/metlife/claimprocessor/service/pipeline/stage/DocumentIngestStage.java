@@ -0,0 +1,61 @@
+package com.tejas.metlife.claimprocessor.service.pipeline.stage;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimDocumentType;
+import com.tejas.metlife.claimprocessor.service.BlobStorageService;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimContext;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimStage;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Uploads the claim documents to Azure Blob Storage, one task per document.
+ */
+public class DocumentIngestStage implements ClaimStage {
+
+    private final BlobStorageService blobStorageService;
+    private final TaskExecutor documentExecutor;
+    private final List<ClaimDocumentType> documentTypes;
+
+    public DocumentIngestStage(BlobStorageService blobStorageService,
+                               TaskExecutor documentExecutor,
+                               List<ClaimDocumentType> documentTypes) {
+        this.blobStorageService = blobStorageService;
+        this.documentExecutor = documentExecutor;
+        this.documentTypes = List.copyOf(documentTypes);
+    }
+
+    @Override
+    public String name() {
+        return "document-ingest";
+    }
+
+    @Override
+    public void execute(ClaimContext context) {
+        List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        for (ClaimDocumentType type : context.providedDocuments(documentTypes)) {
+            uploads.add(CompletableFuture.runAsync(() -> upload(context, type), documentExecutor));
+        }
+        CompletableFuture.allOf(uploads.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void upload(ClaimContext context, ClaimDocumentType type) {
+        try {
+            System.out.println("[DocumentIngestStage] Uploading " + type.getFieldName() + " to Azure Blob Storage...");
+            String url = blobStorageService.uploadFile(context.getDocument(type));
+            context.putDocumentUrl(type, url);
+            System.out.println("[DocumentIngestStage] " + type.getDisplayName() + " uploaded: " + url);
+        } catch (Exception e) {
+            System.err.println("[DocumentIngestStage] ✗ Failed to upload " + type.getFieldName() + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /** Missing document URLs are tolerated; the claim is still evaluated. */
+    @Override
+    public void onFailure(ClaimContext context, Throwable failure) {
+        System.err.println("[DocumentIngestStage] ⚠ Continuing without all document uploads: " + failure.getMessage());
+    }
+}
@@ -0,0 +1,124 @@
+package com.tejas.metlife.claimprocessor.service.pipeline.stage;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimDocumentType;
+import com.tejas.metlife.claimprocessor.service.ocr.OcrEngine;
+import com.tejas.metlife.claimprocessor.service.resilience.DependencyUnavailableException;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimContext;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimDecision;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimStage;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Extracts text from the claim documents through {@link OcrEngine}.
+ * Document threads only do the local work (hashing, rendering, preprocessing); the model calls
+ * are composed as futures, so documents in flight do not each hold a thread.
+ * Text is stored per document type; the labeled combination is assembled in fixed order later.
+ */
+public class OcrStage implements ClaimStage {
+
+    private final OcrEngine ocrEngine;
+    private final TaskExecutor documentExecutor;
+    private final List<ClaimDocumentType> documentTypes;
+
+    public OcrStage(OcrEngine ocrEngine,
+                    TaskExecutor documentExecutor,
+                    List<ClaimDocumentType> documentTypes) {
+        this.ocrEngine = ocrEngine;
+        this.documentExecutor = documentExecutor;
+        this.documentTypes = List.copyOf(documentTypes);
+    }
+
+    @Override
+    public String name() {
+        return "ocr";
+    }
+
+    @Override
+    public void execute(ClaimContext context) {
+        System.out.println("\n[OcrStage] ========== STARTING OCR EXTRACTION ==========\n");
+        List<ClaimDocumentType> provided = context.providedDocuments(documentTypes);
+        if (ocrEngine.isBatched() && provided.size() > 1) {
+            extractBatched(context, provided).join();
+        } else {
+            List<CompletableFuture<Void>> extractions = new ArrayList<>();
+            for (ClaimDocumentType type : provided) {
+                extractions.add(extract(context, type));
+            }
+            CompletableFuture.allOf(extractions.toArray(new CompletableFuture[0])).join();
+        }
+
+        System.out.println("\n[OcrStage] ========== OCR EXTRACTION COMPLETE ==========\n");
+        System.out.println("[OcrStage] Document types processed: " + provided);
+    }
+
+    private CompletableFuture<Void> extractBatched(ClaimContext context, List<ClaimDocumentType> provided) {
+        System.out.println("[OcrStage] Extracting text from " + provided.size() + " documents in one batch...");
+        Map<String, MultipartFile> documents = new LinkedHashMap<>();
+        for (ClaimDocumentType type : provided) {
+            documents.put(type.getDisplayName(), context.getDocument(type));
+        }
+        return ocrEngine.extractTextsAsync(documents, documentExecutor).thenAccept(texts -> {
+            for (ClaimDocumentType type : provided) {
+                String extracted = texts.get(type.getDisplayName());
+                if (extracted != null) {
+                    context.putDocumentText(type, extracted);
+                }
+                System.out.println("[OcrStage] ✓ " + type.getDisplayName() + " OCR SUCCESS - Extracted " + (extracted != null ? extracted.length() : 0) + " chars");
+            }
+        });
+    }
+
+    private CompletableFuture<Void> extract(ClaimContext context, ClaimDocumentType type) {
+        return CompletableFuture.supplyAsync(() -> {
+                    System.out.println("[OcrStage] Extracting text from " + type.getFieldName() + "...");
+                    return ocrEngine.extractTextAsync(context.getDocument(type));
+                }, documentExecutor)
+                .thenCompose(text -> text)
+                .handle((extracted, failure) -> {
+                    if (failure != null) {
+                        if (!degrade(context, failure)) {
+                            System.err.println("[OcrStage] ✗ Failed to process " + type.getFieldName() + ": " + failure.getMessage());
+                            failure.printStackTrace();
+                        }
+                        return null;
+                    }
+                    if (extracted != null) {
+                        context.putDocumentText(type, extracted);
+                    }
+                    System.out.println("[OcrStage] ✓ " + type.getDisplayName() + " OCR SUCCESS - Extracted " + (extracted != null ? extracted.length() : 0) + " chars");
+                    System.out.println("[OCR - " + type.getDisplayName() + "] >>> " + (extracted != null ? extracted.substring(0, Math.min(200, extracted.length())) : "EMPTY") + "...");
+                    return null;
+                });
+    }
+
+    /** Documents that could not be read are simply missing from the agent input. */
+    @Override
+    public void onFailure(ClaimContext context, Throwable failure) {
+        if (degrade(context, failure)) {
+            return;
+        }
+        System.err.println("[OcrStage] ⚠ Continuing with partial OCR text: " + failure.getMessage());
+    }
+
+    /**
+     * With OCR unavailable the consistency check would see no text and reject the claim as
+     * forged - send it to manual review instead.
+     */
+    private boolean degrade(ClaimContext context, Throwable failure) {
+        DependencyUnavailableException unavailable = DependencyUnavailableException.find(failure);
+        if (unavailable == null) {
+            return false;
+        }
+        System.err.println("[OcrStage] ⚠ OCR unavailable - claim goes to manual review: " + unavailable.getMessage());
+        context.decide(ClaimDecision.manualReview(
+                "Document reading is temporarily unavailable (" + unavailable.getMessage() + "). Manual review required."));
+        return true;
+    }
+}
@@ -0,0 +1,124 @@
+package com.tejas.metlife.claimprocessor.service.pipeline.stage;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimDocumentType;
+import com.tejas.metlife.claimprocessor.dto.ClaimResponse;
+import com.tejas.metlife.claimprocessor.dto.ClaimSubmission;
+import com.tejas.metlife.claimprocessor.model.Claim;
+import com.tejas.metlife.claimprocessor.model.Policy;
+import com.tejas.metlife.claimprocessor.repository.ClaimRepository;
+import com.tejas.metlife.claimprocessor.service.ClaimReferenceGenerator;
+import com.tejas.metlife.claimprocessor.service.DecisionOutboxService;
+import com.tejas.metlife.claimprocessor.service.institution.InstitutionRegistry;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimContext;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimDecision;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimStage;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * Records the claim decision and moves the policy status along with it.
+ * The claim and its outbox entry are written in one short transaction; the policy
+ * update is applied from the outbox so a failure there is retried, not lost.
+ * Institutions the agent verified on an approved claim are learned by the
+ * {@link InstitutionRegistry} only after that transaction has committed.
+ */
+public class PersistStage implements ClaimStage {
+
+    private final ClaimRepository claimRepository;
+    private final ClaimReferenceGenerator claimReferenceGenerator;
+    private final DecisionOutboxService decisionOutboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final InstitutionRegistry institutionRegistry;
+
+    public PersistStage(ClaimRepository claimRepository,
+                        ClaimReferenceGenerator claimReferenceGenerator,
+                        DecisionOutboxService decisionOutboxService,
+                        TransactionTemplate transactionTemplate,
+                        InstitutionRegistry institutionRegistry) {
+        this.claimRepository = claimRepository;
+        this.claimReferenceGenerator = claimReferenceGenerator;
+        this.decisionOutboxService = decisionOutboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.institutionRegistry = institutionRegistry;
+    }
+
+    @Override
+    public String name() {
+        return "persist";
+    }
+
+    @Override
+    public boolean skippable() {
+        return false;
+    }
+
+    @Override
+    public void execute(ClaimContext context) {
+        ClaimDecision decision = context.getDecision();
+
+        String claimRef = context.claimReference(claimReferenceGenerator::nextReference);
+        Policy policy = context.getPolicy();
+        boolean updatePolicy = decision.updatePolicyStatus() && policy != null;
+
+        // ---- Save Claim (+ outbox entry for the policy update) ----
+        Long outboxId = transactionTemplate.execute(tx -> {
+            saveClaim(context, claimRef, decision);
+            return updatePolicy
+                    ? decisionOutboxService.enqueue(claimRef, policy.getPolicyNumber(), decision.status()).getId()
+                    : null;
+        });
+        System.out.println("[PersistStage] Claim saved with ref: " + claimRef);
+
+        // ---- Update Policy ----
+        if (outboxId != null) {
+            String policyStatus = decisionOutboxService.apply(outboxId);
+            System.out.println("[PersistStage] Policy updated to: " + (policyStatus != null ? policyStatus : "<pending outbox retry>"));
+        }
+
+        // Keyed by claim reference, so a retry of this stage does not confirm twice
+        if ("APPROVED".equals(decision.status())) {
+            institutionRegistry.learn(context.getVerifiedInstitutions(), claimRef, context.getPolicyNumber());
+        }
+
+        System.out.println("[PersistStage] Returning decision: " + decision.status());
+        context.respond(new ClaimResponse(decision.status(), decision.message(), claimRef));
+    }
+
+    private void saveClaim(ClaimContext context, String claimRef, ClaimDecision decision) {
+        ClaimSubmission submission = context.getSubmission();
+        Claim claim = openClaim(claimRef);
+        claim.setPolicyNumber(submission.getPolicyNumber());
+        claim.setCauseOfDeath(submission.getCauseOfDeath());
+        claim.setClaimFormUrl(context.getDocumentUrl(ClaimDocumentType.CLAIM_FORM));
+        claim.setDeathCertificateUrl(context.getDocumentUrl(ClaimDocumentType.DEATH_CERTIFICATE));
+        claim.setDoctorReportUrl(context.getDocumentUrl(ClaimDocumentType.DOCTOR_REPORT));
+        claim.setPoliceReportUrl(context.getDocumentUrl(ClaimDocumentType.POLICE_REPORT));
+        claim.setDeceasedFullName(submission.getDeceasedFullName());
+        claim.setDeceasedEmail(submission.getDeceasedEmail());
+        claim.setDeceasedMobile(submission.getDeceasedMobile());
+        claim.setDeceasedAddress(submission.getDeceasedAddress());
+        claim.setNomineeFullName(submission.getNomineeFullName());
+        claim.setNomineeRelationship(submission.getNomineeRelationship());
+        claim.setNomineeMobile(submission.getNomineeMobile());
+        claim.setIdempotencyKey(submission.getIdempotencyKey());
+        claim.setAiDecision(decision.status());
+        claim.setAiReason(decision.reason());
+        claim.setClaimStatus(decision.status());
+        claimRepository.save(claim);
+    }
+
+    /**
+     * Returns the claim row to record a decision on: the PROCESSING row created for an
+     * async submission (or by an earlier attempt of this stage), or a new claim.
+     */
+    private Claim openClaim(String claimRef) {
+        Optional<Claim> existing = claimRepository.findByClaimReference(claimRef);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        Claim claim = new Claim();
+        claim.setClaimReference(claimRef);
+        return claim;
+    }
+}
@@ -0,0 +1,127 @@
+package com.tejas.metlife.claimprocessor.service.pipeline.stage;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimDocumentType;
+import com.tejas.metlife.claimprocessor.dto.ClaimResponse;
+import com.tejas.metlife.claimprocessor.model.Policy;
+import com.tejas.metlife.claimprocessor.repository.ClaimRepository;
+import com.tejas.metlife.claimprocessor.repository.PolicyRepository;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimContext;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimDecision;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimStage;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * Cheap checks that run before any document is touched: the policy must exist and be
+ * claimable, and (with full checks) the submission must carry a claim form.
+ * Policy reads and the retry reactivation share one short transaction.
+ */
+public class PolicyGateStage implements ClaimStage {
+
+    private final PolicyRepository policyRepository;
+    private final ClaimRepository claimRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean fullChecks;
+
+    /**
+     * @param fullChecks true for the standard flow (rejection history, status and document checks,
+     *                   rejections recorded as claims); false only looks the policy up
+     */
+    public PolicyGateStage(PolicyRepository policyRepository,
+                           ClaimRepository claimRepository,
+                           TransactionTemplate transactionTemplate,
+                           boolean fullChecks) {
+        this.policyRepository = policyRepository;
+        this.claimRepository = claimRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.fullChecks = fullChecks;
+    }
+
+    @Override
+    public String name() {
+        return "policy-gate";
+    }
+
+    @Override
+    public boolean skippable() {
+        return false;
+    }
+
+    @Override
+    public void execute(ClaimContext context) {
+        transactionTemplate.executeWithoutResult(tx -> check(context));
+    }
+
+    private void check(ClaimContext context) {
+        String policyNumber = context.getPolicyNumber();
+
+        // ====== STEP 1: CHECK POLICY EXISTS FIRST (BEFORE PROCESSING FILES) ======
+        if (fullChecks && (policyNumber == null || policyNumber.trim().isEmpty())) {
+            System.out.println("[PolicyGateStage] Policy number is missing");
+            context.respond(new ClaimResponse("REJECTED", "Policy number is required.", null));
+            return;
+        }
+
+        System.out.println("[PolicyGateStage] Checking if policy exists in database...");
+        Optional<Policy> opt = policyRepository.findByPolicyNumber(policyNumber);
+        if (opt.isEmpty()) {
+            System.out.println("[PolicyGateStage] ⚠ Policy not found in database: " + policyNumber);
+            if (fullChecks) {
+                context.decide(ClaimDecision.of("REJECTED", "Policy not found", false));
+            } else {
+                context.respond(new ClaimResponse("REJECTED", "Policy not found", null));
+            }
+            return;
+        }
+
+        Policy policy = opt.get();
+        context.setPolicy(policy);
+        System.out.println("[PolicyGateStage] ✓ Policy found - Status: " + policy.getStatus() + ", Holder: " + policy.getPolicyHolderName());
+
+        if (!fullChecks) {
+            return;
+        }
+
+        // ====== CHECK FOR MULTIPLE REJECTION ATTEMPTS ======
+        if ("REJECTED".equals(policy.getStatus())) {
+            // Count how many times this policy has been rejected
+            long rejectionCount = claimRepository.countByPolicyNumberAndClaimStatus(policyNumber, "REJECTED");
+            System.out.println("[PolicyGateStage] Policy status is REJECTED. Previous rejection count: " + rejectionCount);
+
+            if (rejectionCount >= 2) {
+                // 3rd or more attempt - send to manual review (policy moves to UNDER_REVIEW)
+                System.out.println("[PolicyGateStage] ⚠ 3rd+ claim attempt after 2 rejections - Sending to MANUAL_REVIEW");
+                context.decide(new ClaimDecision(
+                        "MANUAL_REVIEW",
+                        "Policy has been rejected " + rejectionCount + " times previously. This is the " + (rejectionCount + 1) + " attempt. Manual review required.",
+                        "Policy has been rejected " + rejectionCount + " times previously. This claim requires manual review by an underwriter.",
+                        true));
+                return;
+            }
+
+            // 1st or 2nd attempt - allow retry but warn
+            System.out.println("[PolicyGateStage] Policy was previously rejected (attempt " + (rejectionCount + 1) + "). Allowing retry with full AI analysis.");
+            // Change status to ACTIVE temporarily to allow processing
+            policy.setStatus("ACTIVE");
+            policyRepository.save(policy);
+        }
+
+        if (!"ACTIVE".equals(policy.getStatus())) {
+            System.out.println("[PolicyGateStage] ⚠ Policy is not active: " + policy.getStatus());
+            context.decide(ClaimDecision.of("REJECTED", "Policy is not active. Current status: " + policy.getStatus(), false));
+            return;
+        }
+
+        // ====== Submission must carry documents before the expensive stages run ======
+        if (context.getSubmission().getFiles() == null) {
+            System.out.println("[PolicyGateStage] Files map is null");
+            context.respond(new ClaimResponse("REJECTED", "No files provided.", null));
+            return;
+        }
+        if (context.getDocument(ClaimDocumentType.CLAIM_FORM) == null) {
+            System.out.println("[PolicyGateStage] claimForm is missing or empty.");
+            context.respond(new ClaimResponse("REJECTED", "Claim form is required.", null));
+        }
+    }
+}
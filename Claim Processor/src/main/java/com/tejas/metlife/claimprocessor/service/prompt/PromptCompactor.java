@@ -0,0 +1,227 @@
+package com.tejas.metlife.claimprocessor.service.prompt;
+
+import dev.langchain4j.model.Tokenizer;
+import dev.langchain4j.model.azure.AzureOpenAiTokenizer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Shrinks the OCR document sections of the agent input to a token budget.
+ *
+ * Per section, in order: whitespace is collapsed, boilerplate lines (page numbers, separators,
+ * "computer generated" footers) are dropped, a line repeated within the document is kept once,
+ * and a long line already sent in an earlier document is replaced by a short reference - short
+ * lines such as names and dates stay verbatim, since their presence in every document is the
+ * evidence the agent cross-checks. Lines matching a keep pattern are never touched. A section
+ * still over {@code section-max-tokens} keeps its head and tail and drops the middle.
+ *
+ * Tokens are counted with the local Azure OpenAI tokenizer (chars/4 if it is unavailable);
+ * before/after counts and the ratio are recorded as {@code claim.agent.prompt.*} summaries.
+ */
+@Component
+public class PromptCompactor {
+
+    private static final Pattern SPACES = Pattern.compile("[ \\t\\u00A0]+");
+
+    static final List<String> DEFAULT_BOILERPLATE = List.of(
+            "(?i)^page\\s*\\d+(\\s*(of|/)\\s*\\d+)?$",
+            "^[^\\p{L}\\p{N}]+$",
+            "(?i)^(this is an? )?(computer|system|electronically)[- ]generated\\b.*$",
+            "(?i)^(contd\\.?|continued( on next page)?\\.?)$");
+
+    private final boolean enabled;
+    private final ToIntFunction<String> tokenizer;
+    private final int sectionMaxTokens;
+    private final int dedupeMinTokens;
+    private final int crossDocumentMinTokens;
+    private final List<Pattern> boilerplate;
+    private final List<Pattern> keep;
+
+    private final DistributionSummary tokensBefore;
+    private final DistributionSummary tokensAfter;
+    private final DistributionSummary ratio;
+
+    @Autowired
+    public PromptCompactor(@Value("${claim.agent.compaction.enabled:true}") boolean enabled,
+                           @Value("${claim.agent.compaction.tokenizer-model:gpt-4}") String tokenizerModel,
+                           @Value("${claim.agent.compaction.section-max-tokens:1500}") int sectionMaxTokens,
+                           @Value("${claim.agent.compaction.dedupe-min-tokens:4}") int dedupeMinTokens,
+                           @Value("${claim.agent.compaction.cross-document-min-tokens:12}") int crossDocumentMinTokens,
+                           @Value("${claim.agent.compaction.boilerplate-patterns:}") List<String> boilerplatePatterns,
+                           @Value("${claim.agent.compaction.keep-patterns:(?i)verified by}") List<String> keepPatterns,
+                           MeterRegistry meterRegistry) {
+        this(enabled, tokenizer(tokenizerModel), sectionMaxTokens, dedupeMinTokens, crossDocumentMinTokens,
+                boilerplatePatterns, keepPatterns, meterRegistry);
+    }
+
+    PromptCompactor(boolean enabled, ToIntFunction<String> tokenizer, int sectionMaxTokens, int dedupeMinTokens,
+                    int crossDocumentMinTokens, List<String> boilerplatePatterns, List<String> keepPatterns,
+                    MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.tokenizer = tokenizer;
+        this.sectionMaxTokens = sectionMaxTokens;
+        this.dedupeMinTokens = dedupeMinTokens;
+        this.crossDocumentMinTokens = crossDocumentMinTokens;
+        this.boilerplate = new ArrayList<>();
+        for (String regex : DEFAULT_BOILERPLATE) {
+            boilerplate.add(Pattern.compile(regex));
+        }
+        for (String regex : boilerplatePatterns) {
+            if (!regex.isBlank()) {
+                boilerplate.add(Pattern.compile(regex.trim()));
+            }
+        }
+        this.keep = new ArrayList<>();
+        for (String regex : keepPatterns) {
+            if (!regex.isBlank()) {
+                keep.add(Pattern.compile(regex.trim()));
+            }
+        }
+
+        this.tokensBefore = DistributionSummary.builder("claim.agent.prompt.tokens").tag("stage", "before").baseUnit("tokens").register(meterRegistry);
+        this.tokensAfter = DistributionSummary.builder("claim.agent.prompt.tokens").tag("stage", "after").baseUnit("tokens").register(meterRegistry);
+        this.ratio = DistributionSummary.builder("claim.agent.prompt.compaction.ratio").register(meterRegistry);
+    }
+
+    public int countTokens(String text) {
+        return text == null || text.isEmpty() ? 0 : tokenizer.applyAsInt(text);
+    }
+
+    /**
+     * Compact document sections.
+     *
+     * @param sections OCR text keyed by section label, in prompt order
+     * @return the compacted text under the same labels, same order
+     */
+    public Map<String, String> compact(Map<String, String> sections) {
+        if (!enabled) {
+            return sections;
+        }
+        Map<String, String> firstSeenIn = new HashMap<>();
+        Map<String, String> compacted = new LinkedHashMap<>();
+        int before = 0;
+        int after = 0;
+        for (Map.Entry<String, String> section : sections.entrySet()) {
+            String label = section.getKey();
+            String text = section.getValue() != null ? section.getValue() : "";
+            before += countTokens(text);
+
+            List<String> lines = new ArrayList<>();
+            Set<String> seenHere = new HashSet<>();
+            boolean lastBlank = true;
+            for (String raw : text.split("\\R")) {
+                String line = SPACES.matcher(raw.trim()).replaceAll(" ");
+                if (line.isEmpty()) {
+                    if (!lastBlank) {
+                        lines.add("");
+                        lastBlank = true;
+                    }
+                    continue;
+                }
+                if (!matchesAny(keep, line)) {
+                    if (matchesAny(boilerplate, line)) {
+                        continue;
+                    }
+                    String key = line.toLowerCase(Locale.ROOT);
+                    int tokens = countTokens(line);
+                    if (!seenHere.add(key) && tokens >= dedupeMinTokens) {
+                        continue;
+                    }
+                    String origin = firstSeenIn.putIfAbsent(key, label);
+                    if (origin != null && !origin.equals(label) && tokens >= crossDocumentMinTokens) {
+                        line = "[same line as in " + origin + "]";
+                    }
+                }
+                lines.add(line);
+                lastBlank = false;
+            }
+            if (!lines.isEmpty() && lines.get(lines.size() - 1).isEmpty()) {
+                lines.remove(lines.size() - 1);
+            }
+
+            String result = fitBudget(label, lines);
+            after += countTokens(result);
+            compacted.put(label, result);
+        }
+
+        tokensBefore.record(before);
+        tokensAfter.record(after);
+        if (before > 0) {
+            ratio.record((double) after / before);
+        }
+        System.out.println("[PromptCompactor] ✓ Document sections compacted: " + before + " → " + after + " tokens"
+                + (before > 0 ? " (" + Math.round(100.0 * after / before) + "%)" : ""));
+        return compacted;
+    }
+
+    /** Keep two thirds of the budget from the head and one third from the tail of an oversized section. */
+    private String fitBudget(String label, List<String> lines) {
+        String joined = String.join("\n", lines);
+        if (sectionMaxTokens <= 0 || countTokens(joined) <= sectionMaxTokens) {
+            return joined;
+        }
+        int[] lineTokens = new int[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            lineTokens[i] = countTokens(lines.get(i)) + 1;
+        }
+        int headBudget = sectionMaxTokens * 2 / 3;
+        int tailBudget = sectionMaxTokens - headBudget - 16;
+
+        int head = 0;
+        for (int used = 0; head < lines.size() && used + lineTokens[head] <= headBudget; head++) {
+            used += lineTokens[head];
+        }
+        int tail = lines.size();
+        for (int used = 0; tail > head && used + lineTokens[tail - 1] <= tailBudget; tail--) {
+            used += lineTokens[tail - 1];
+        }
+
+        List<String> kept = new ArrayList<>(lines.subList(0, head));
+        if (head == 0) {
+            // One oversized line (OCR without line breaks): cut it at roughly the head budget
+            String first = lines.get(0);
+            kept.add(first.substring(0, Math.min(first.length(), headBudget * 4)));
+            head = 1;
+        }
+        int omitted = Math.max(0, tail - head);
+        kept.add("[... " + omitted + " line(s) omitted to fit the token budget ...]");
+        kept.addAll(lines.subList(Math.max(tail, head), lines.size()));
+        System.out.println("[PromptCompactor] ⚠ " + label + " over " + sectionMaxTokens + " tokens - omitted " + omitted + " line(s)");
+        return String.join("\n", kept);
+    }
+
+    private static boolean matchesAny(List<Pattern> patterns, String line) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(line).find()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ToIntFunction<String> tokenizer(String model) {
+        try {
+            Tokenizer tokenizer = new AzureOpenAiTokenizer(model);
+            tokenizer.estimateTokenCountInText("warm up");
+            System.out.println("[PromptCompactor] ✓ Counting tokens with the " + model + " tokenizer");
+            return tokenizer::estimateTokenCountInText;
+        } catch (RuntimeException | LinkageError e) {
+            System.err.println("[PromptCompactor] ⚠ Tokenizer for " + model + " unavailable (" + e.getMessage() + ") - estimating 4 chars per token");
+            return text -> text.length() / 4 + 1;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.tejas.metlife.claimprocessor.service.ratelimit;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Shared rate limiters for Azure OpenAI, one per deployment, so OCR, the claim agent and
+ * RAG embeddings draw from the same RPM/TPM quota instead of racing into 429s.
+ *
+ * Per deployment: {@code claim.openai.rate-limit.<deployment>.rpm} and {@code .tpm}, falling
+ * back to {@code claim.openai.rate-limit.default.*}. Waits are recorded as the
+ * {@code claim.openai.ratelimit.wait} timer and 429s as {@code claim.openai.ratelimit.throttled},
+ * both tagged by deployment.
+ */
+@Component
+public class AzureOpenAiRateLimiters {
+
+    private static final String PREFIX = "claim.openai.rate-limit.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TokenBucketRateLimiter> limiters = new ConcurrentHashMap<>();
+    private final int maxRetries;
+    private final Duration defaultRetryAfter;
+
+    public AzureOpenAiRateLimiters(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = environment.getProperty(PREFIX + "max-retries", Integer.class, 3);
+        this.defaultRetryAfter = Duration.ofMillis(environment.getProperty(PREFIX + "default-retry-after-ms", Long.class, 10_000L));
+    }
+
+    public TokenBucketRateLimiter forDeployment(String deployment) {
+        return limiters.computeIfAbsent(deployment, this::create);
+    }
+
+    /**
+     * Run one Azure OpenAI call under the deployment's limiter. Throttled calls wait out
+     * Retry-After and are retried up to {@code max-retries} times.
+     *
+     * @param estimatedTokens prompt + max completion tokens reserved before the call
+     * @param usedTokens      actual total tokens from the response, or -1 if unknown
+     */
+    public <T> T call(String deployment, int estimatedTokens, Supplier<T> call, ToIntFunction<T> usedTokens) {
+        TokenBucketRateLimiter limiter = forDeployment(deployment);
+        Timer waitTimer = Timer.builder("claim.openai.ratelimit.wait").tag("deployment", deployment).register(meterRegistry);
+        for (int attempt = 0; ; attempt++) {
+            TokenBucketRateLimiter.Permit permit;
+            try {
+                permit = limiter.acquire(estimatedTokens);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for Azure OpenAI capacity", e);
+            }
+            waitTimer.record(permit.delayNanos(), TimeUnit.NANOSECONDS);
+
+            try {
+                T result = call.get();
+                limiter.onSuccess();
+                permit.settle(usedTokens.applyAsInt(result));
+                return result;
+            } catch (RuntimeException e) {
+                if (!retryThrottled(deployment, limiter, permit, e, attempt)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #call}: the quota wait and Retry-After pauses are
+     * scheduled on a timer instead of sleeping, so no thread is held while waiting.
+     */
+    public <T> CompletableFuture<T> callAsync(String deployment, int estimatedTokens,
+                                              Supplier<CompletableFuture<T>> call, ToIntFunction<T> usedTokens) {
+        return attemptAsync(deployment, forDeployment(deployment), estimatedTokens, call, usedTokens, 0);
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(String deployment, TokenBucketRateLimiter limiter, int estimatedTokens,
+                                                  Supplier<CompletableFuture<T>> call, ToIntFunction<T> usedTokens, int attempt) {
+        TokenBucketRateLimiter.Permit permit = limiter.reserve(estimatedTokens);
+        Timer.builder("claim.openai.ratelimit.wait").tag("deployment", deployment).register(meterRegistry)
+                .record(permit.delayNanos(), TimeUnit.NANOSECONDS);
+
+        CompletableFuture<Void> due = permit.delayNanos() > 0
+                ? CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(permit.delayNanos(), TimeUnit.NANOSECONDS))
+                : CompletableFuture.completedFuture(null);
+        return due.thenCompose(ignored -> call.get())
+                .handle((result, failure) -> {
+                    if (failure == null) {
+                        limiter.onSuccess();
+                        permit.settle(usedTokens.applyAsInt(result));
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    if (!retryThrottled(deployment, limiter, permit, cause, attempt)) {
+                        return CompletableFuture.<T>failedFuture(cause);
+                    }
+                    return attemptAsync(deployment, limiter, estimatedTokens, call, usedTokens, attempt + 1);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Account for a failed attempt; true if it was a 429 worth retrying.
+     */
+    private boolean retryThrottled(String deployment, TokenBucketRateLimiter limiter, TokenBucketRateLimiter.Permit permit,
+                                   Throwable failure, int attempt) {
+        if (!isThrottled(failure)) {
+            return false;
+        }
+        // A throttled request is not billed
+        permit.settle(0);
+        Counter.builder("claim.openai.ratelimit.throttled").tag("deployment", deployment).register(meterRegistry).increment();
+        limiter.onThrottled(retryAfter(failure).orElse(defaultRetryAfter));
+        if (attempt >= maxRetries) {
+            System.err.println("[AzureOpenAiRateLimiters] ✗ " + deployment + " still throttled after " + (attempt + 1) + " attempts");
+            return false;
+        }
+        return true;
+    }
+
+    /** Rough token estimate for text: ~4 characters per token. */
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : text.length() / 4 + 1;
+    }
+
+    public static boolean isThrottled(Throwable failure) {
+        return throttledResponse(failure) != null;
+    }
+
+    /**
+     * Retry-After of a 429 anywhere in the cause chain ({@code retry-after-ms} preferred).
+     */
+    static Optional<Duration> retryAfter(Throwable failure) {
+        HttpResponse response = throttledResponse(failure);
+        if (response == null) {
+            return Optional.empty();
+        }
+        try {
+            String millis = response.getHeaderValue("retry-after-ms");
+            if (millis != null) {
+                return Optional.of(Duration.ofMillis((long) Double.parseDouble(millis.trim())));
+            }
+            String value = response.getHeaderValue("Retry-After");
+            if (value != null) {
+                value = value.trim();
+                if (value.chars().allMatch(Character::isDigit)) {
+                    return Optional.of(Duration.ofSeconds(Long.parseLong(value)));
+                }
+                Duration until = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+                return Optional.of(until.isNegative() ? Duration.ZERO : until);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[AzureOpenAiRateLimiters] ⚠ Unreadable Retry-After: " + e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    private static HttpResponse throttledResponse(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof HttpResponseException http && http.getResponse() != null
+                    && http.getResponse().getStatusCode() == 429) {
+                return http.getResponse();
+            }
+        }
+        return null;
+    }
+
+    private TokenBucketRateLimiter create(String deployment) {
+        int rpm = property(deployment, "rpm", 60);
+        int tpm = property(deployment, "tpm", 60_000);
+        double burstSeconds = environment.getProperty(PREFIX + "burst-seconds", Double.class, 10.0);
+        double decrease = environment.getProperty(PREFIX + "decrease-factor", Double.class, 0.7);
+        double increase = environment.getProperty(PREFIX + "increase-step", Double.class, 0.05);
+
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(deployment, rpm, tpm, burstSeconds, decrease, increase, System::nanoTime);
+        Gauge.builder("claim.openai.ratelimit.rate", limiter, TokenBucketRateLimiter::getRateFactor)
+                .tag("deployment", deployment)
+                .register(meterRegistry);
+        System.out.println("[AzureOpenAiRateLimiters] ✓ " + deployment + ": " + rpm + " RPM, " + tpm + " TPM");
+        return limiter;
+    }
+
+    private int property(String deployment, String key, int defaultValue) {
+        Integer specific = environment.getProperty(PREFIX + deployment + "." + key, Integer.class);
+        if (specific != null) {
+            return specific;
+        }
+        return environment.getProperty(PREFIX + "default." + key, Integer.class, defaultValue);
+    }
+}
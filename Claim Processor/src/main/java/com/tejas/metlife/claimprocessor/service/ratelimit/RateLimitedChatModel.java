@@ -0,0 +1,59 @@
+package com.tejas.metlife.claimprocessor.service.ratelimit;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+
+/**
+ * {@link ChatLanguageModel} whose calls go through the deployment's shared rate limiter.
+ */
+public class RateLimitedChatModel implements ChatLanguageModel {
+
+    private final ChatLanguageModel delegate;
+    private final AzureOpenAiRateLimiters limiters;
+    private final String deployment;
+    private final int maxOutputTokens;
+
+    public RateLimitedChatModel(ChatLanguageModel delegate, AzureOpenAiRateLimiters limiters,
+                                String deployment, int maxOutputTokens) {
+        this.delegate = delegate;
+        this.limiters = limiters;
+        this.deployment = deployment;
+        this.maxOutputTokens = maxOutputTokens;
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages) {
+        return limiters.call(deployment, estimate(messages), () -> delegate.generate(messages), RateLimitedChatModel::usedTokens);
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications) {
+        return limiters.call(deployment, estimate(messages) + toolSpecifications.toString().length() / 4,
+                () -> delegate.generate(messages, toolSpecifications), RateLimitedChatModel::usedTokens);
+    }
+
+    @Override
+    public Response<AiMessage> generate(List<ChatMessage> messages, ToolSpecification toolSpecification) {
+        return limiters.call(deployment, estimate(messages) + toolSpecification.toString().length() / 4,
+                () -> delegate.generate(messages, toolSpecification), RateLimitedChatModel::usedTokens);
+    }
+
+    private int estimate(List<ChatMessage> messages) {
+        int tokens = maxOutputTokens;
+        for (ChatMessage message : messages) {
+            tokens += AzureOpenAiRateLimiters.estimateTokens(message.toString());
+        }
+        return tokens;
+    }
+
+    static int usedTokens(Response<?> response) {
+        return response != null && response.tokenUsage() != null && response.tokenUsage().totalTokenCount() != null
+                ? response.tokenUsage().totalTokenCount()
+                : -1;
+    }
+}
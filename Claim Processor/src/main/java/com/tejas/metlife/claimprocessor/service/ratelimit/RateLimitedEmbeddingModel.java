@@ -0,0 +1,33 @@
+package com.tejas.metlife.claimprocessor.service.ratelimit;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+
+/**
+ * {@link EmbeddingModel} whose calls go through the deployment's shared rate limiter.
+ */
+public class RateLimitedEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final AzureOpenAiRateLimiters limiters;
+    private final String deployment;
+
+    public RateLimitedEmbeddingModel(EmbeddingModel delegate, AzureOpenAiRateLimiters limiters, String deployment) {
+        this.delegate = delegate;
+        this.limiters = limiters;
+        this.deployment = deployment;
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        int tokens = 0;
+        for (TextSegment segment : textSegments) {
+            tokens += AzureOpenAiRateLimiters.estimateTokens(segment.text());
+        }
+        return limiters.call(deployment, tokens, () -> delegate.embedAll(textSegments), RateLimitedChatModel::usedTokens);
+    }
+}
@@ -0,0 +1,103 @@
+package com.tejas.metlife.claimprocessor.service.ratelimit;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * {@link StreamingChatLanguageModel} whose calls go through the deployment's shared rate limiter.
+ *
+ * A 429 before the first token is retried like any other call; once tokens have reached the
+ * handler a failure is passed on as is, since a retry would stream the answer a second time.
+ */
+public class RateLimitedStreamingChatModel implements StreamingChatLanguageModel {
+
+    private final StreamingChatLanguageModel delegate;
+    private final AzureOpenAiRateLimiters limiters;
+    private final String deployment;
+    private final int maxOutputTokens;
+
+    public RateLimitedStreamingChatModel(StreamingChatLanguageModel delegate, AzureOpenAiRateLimiters limiters,
+                                         String deployment, int maxOutputTokens) {
+        this.delegate = delegate;
+        this.limiters = limiters;
+        this.deployment = deployment;
+        this.maxOutputTokens = maxOutputTokens;
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        stream(estimate(messages), h -> delegate.generate(messages, h), handler);
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications,
+                         StreamingResponseHandler<AiMessage> handler) {
+        stream(estimate(messages) + toolSpecifications.toString().length() / 4,
+                h -> delegate.generate(messages, toolSpecifications, h), handler);
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, ToolSpecification toolSpecification,
+                         StreamingResponseHandler<AiMessage> handler) {
+        stream(estimate(messages) + toolSpecification.toString().length() / 4,
+                h -> delegate.generate(messages, toolSpecification, h), handler);
+    }
+
+    private void stream(int estimatedTokens, Consumer<StreamingResponseHandler<AiMessage>> start,
+                        StreamingResponseHandler<AiMessage> handler) {
+        limiters.callAsync(deployment, estimatedTokens, () -> attempt(start, handler), RateLimitedChatModel::usedTokens)
+                .whenComplete((response, failure) -> {
+                    if (failure == null) {
+                        handler.onComplete(response);
+                    } else {
+                        handler.onError(failure instanceof CompletionException && failure.getCause() != null
+                                ? failure.getCause() : failure);
+                    }
+                });
+    }
+
+    private CompletableFuture<Response<AiMessage>> attempt(Consumer<StreamingResponseHandler<AiMessage>> start,
+                                                          StreamingResponseHandler<AiMessage> handler) {
+        CompletableFuture<Response<AiMessage>> done = new CompletableFuture<>();
+        AtomicBoolean streamed = new AtomicBoolean();
+        start.accept(new StreamingResponseHandler<>() {
+            @Override
+            public void onNext(String token) {
+                streamed.set(true);
+                handler.onNext(token);
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response) {
+                done.complete(response);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                // Hide a mid-stream 429 from the limiter's retry
+                done.completeExceptionally(streamed.get() && AzureOpenAiRateLimiters.isThrottled(error)
+                        ? new IllegalStateException("Stream from " + deployment + " interrupted: " + error.getMessage())
+                        : error);
+            }
+        });
+        return done;
+    }
+
+    private int estimate(List<ChatMessage> messages) {
+        int tokens = maxOutputTokens;
+        for (ChatMessage message : messages) {
+            tokens += AzureOpenAiRateLimiters.estimateTokens(message.toString());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,156 @@
+package com.tejas.metlife.claimprocessor.service.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Requests-per-minute and tokens-per-minute limiter for one model deployment.
+ *
+ * Both budgets are token buckets refilled continuously and capped at {@code burstSeconds}
+ * worth of quota. Callers reserve capacity up front and may drive a bucket negative; the
+ * next caller then waits for the deficit to refill, so waiting callers are served in
+ * reservation order. Actual token usage is settled afterwards.
+ *
+ * Throttling adapts the rate AIMD-style: a 429 blocks all callers until its Retry-After has
+ * passed and cuts the rate by {@code decreaseFactor}; every success adds back
+ * {@code increaseStep} of the configured rate, up to 100%.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final double MIN_RATE_FACTOR = 0.1;
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final String name;
+    private final double requestsPerMinute;
+    private final double tokensPerMinute;
+    private final double burstSeconds;
+    private final double decreaseFactor;
+    private final double increaseStep;
+    private final LongSupplier clock;
+
+    private double availableRequests;
+    private double availableTokens;
+    private long lastRefillNanos;
+    private long blockedUntilNanos;
+    private double rateFactor = 1.0;
+
+    /** Capacity reserved by one call. */
+    public record Permit(TokenBucketRateLimiter limiter, int reservedTokens, long delayNanos) {
+        /** Report actual token usage so the difference to the estimate is returned or charged. */
+        public void settle(int actualTokens) {
+            limiter.settle(reservedTokens, actualTokens);
+        }
+    }
+
+    public TokenBucketRateLimiter(String name, int requestsPerMinute, int tokensPerMinute, double burstSeconds,
+                                  double decreaseFactor, double increaseStep, LongSupplier clock) {
+        this.name = name;
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.burstSeconds = burstSeconds;
+        this.decreaseFactor = decreaseFactor;
+        this.increaseStep = increaseStep;
+        this.clock = clock;
+        this.lastRefillNanos = clock.getAsLong();
+        this.availableRequests = requestCapacity();
+        this.availableTokens = tokenCapacity();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Reserve one request and {@code tokens} tokens without waiting.
+     *
+     * @return the permit; the caller must wait {@link Permit#delayNanos()} before calling
+     */
+    public synchronized Permit reserve(int tokens) {
+        long now = clock.getAsLong();
+        refill(now);
+
+        double requestDeficit = 1 - availableRequests;
+        double tokenDeficit = tokens - availableTokens;
+        long wait = Math.max(0, blockedUntilNanos - now);
+        if (requestDeficit > 0) {
+            wait = Math.max(wait, (long) (requestDeficit / requestRatePerNano()));
+        }
+        if (tokenDeficit > 0) {
+            wait = Math.max(wait, (long) (tokenDeficit / tokenRatePerNano()));
+        }
+
+        availableRequests -= 1;
+        availableTokens -= tokens;
+        return new Permit(this, tokens, wait);
+    }
+
+    /**
+     * Reserve and sleep until the permit is due.
+     */
+    public Permit acquire(int tokens) throws InterruptedException {
+        Permit permit = reserve(tokens);
+        if (permit.delayNanos() > 0) {
+            TimeUnit.NANOSECONDS.sleep(permit.delayNanos());
+        }
+        return permit;
+    }
+
+    synchronized void settle(int reservedTokens, int actualTokens) {
+        if (actualTokens >= 0) {
+            refill(clock.getAsLong());
+            availableTokens = Math.min(tokenCapacity(), availableTokens + reservedTokens - actualTokens);
+        }
+    }
+
+    /**
+     * The service answered 429: pause everyone for {@code retryAfter} and slow down.
+     */
+    public synchronized void onThrottled(Duration retryAfter) {
+        long now = clock.getAsLong();
+        refill(now);
+        blockedUntilNanos = Math.max(blockedUntilNanos, now + retryAfter.toNanos());
+        rateFactor = Math.max(MIN_RATE_FACTOR, rateFactor * decreaseFactor);
+        // Forget accumulated credit - it was evidently not really available
+        availableRequests = Math.min(availableRequests, 0);
+        availableTokens = Math.min(availableTokens, 0);
+        System.out.println("[TokenBucketRateLimiter] ⚠ " + name + " throttled - pausing " + retryAfter.toMillis()
+                + " ms, rate now " + Math.round(rateFactor * 100) + "%");
+    }
+
+    public synchronized void onSuccess() {
+        if (rateFactor < 1.0) {
+            refill(clock.getAsLong());
+            rateFactor = Math.min(1.0, rateFactor + increaseStep);
+        }
+    }
+
+    public synchronized double getRateFactor() {
+        return rateFactor;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            availableRequests = Math.min(requestCapacity(), availableRequests + elapsed * requestRatePerNano());
+            availableTokens = Math.min(tokenCapacity(), availableTokens + elapsed * tokenRatePerNano());
+            lastRefillNanos = now;
+        }
+    }
+
+    private double requestRatePerNano() {
+        return requestsPerMinute * rateFactor / NANOS_PER_MINUTE;
+    }
+
+    private double tokenRatePerNano() {
+        return tokensPerMinute * rateFactor / NANOS_PER_MINUTE;
+    }
+
+    private double requestCapacity() {
+        return Math.max(1, requestsPerMinute * rateFactor * burstSeconds / 60);
+    }
+
+    private double tokenCapacity() {
+        return tokensPerMinute * rateFactor * burstSeconds / 60;
+    }
+}
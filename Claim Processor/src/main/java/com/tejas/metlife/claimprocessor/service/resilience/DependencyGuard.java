@@ -0,0 +1,188 @@
+package com.tejas.metlife.claimprocessor.service.resilience;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker plus bulkhead around one external dependency.
+ *
+ * The bulkhead caps concurrent calls so a slow dependency can only tie up its own share of
+ * threads; callers wait at most {@code maxWaitMs} for a slot. Either an open circuit or a
+ * full bulkhead fails the call immediately with {@link DependencyUnavailableException}.
+ *
+ * {@link #callAsync} guards non-blocking calls: a slot is held from issuing the request until
+ * its future completes, and callers waiting for a slot are queued rather than parked, so no
+ * thread is tied up while the dependency works.
+ */
+public class DependencyGuard {
+
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final long maxWaitMs;
+    private final Predicate<Throwable> recordAsFailure;
+    private final Runnable onRejected;
+    // Async callers waiting for a slot; released slots are handed to them first
+    private final Deque<CompletableFuture<Boolean>> waiters = new ArrayDeque<>();
+
+    public DependencyGuard(String name, CircuitBreaker circuitBreaker, int maxConcurrentCalls, long maxWaitMs,
+                           Predicate<Throwable> recordAsFailure, Runnable onRejected) {
+        this.name = name;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = new Semaphore(maxConcurrentCalls, true);
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitMs = maxWaitMs;
+        this.recordAsFailure = recordAsFailure;
+        this.onRejected = onRejected;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker.State getState() {
+        return circuitBreaker.getState();
+    }
+
+    public int getActiveCalls() {
+        return maxConcurrentCalls - bulkhead.availablePermits();
+    }
+
+    /**
+     * Fail fast if the circuit is open, without taking a slot (e.g. before waiting for quota).
+     */
+    public void ensureAvailable() {
+        if (circuitBreaker.isRejecting()) {
+            throw rejected("circuit open");
+        }
+    }
+
+    public <T> T call(Supplier<T> call) {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw rejected("interrupted waiting for a slot");
+        }
+        if (!acquired) {
+            throw rejected("bulkhead full (" + maxConcurrentCalls + " concurrent calls)");
+        }
+        try {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                throw rejected("circuit open");
+            }
+            long start = System.nanoTime();
+            try {
+                T result = call.get();
+                circuitBreaker.onSuccess(System.nanoTime() - start);
+                return result;
+            } catch (RuntimeException e) {
+                if (recordAsFailure.test(e)) {
+                    circuitBreaker.onError(System.nanoTime() - start);
+                } else {
+                    circuitBreaker.onSuccess(System.nanoTime() - start);
+                }
+                throw e;
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Guard a call that returns a future. Rejections complete the result exceptionally.
+     */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> call) {
+        return acquireAsync().thenCompose(acquired -> {
+            if (!acquired) {
+                throw rejected("bulkhead full (" + maxConcurrentCalls + " concurrent calls)");
+            }
+            if (!circuitBreaker.tryAcquirePermission()) {
+                release();
+                throw rejected("circuit open");
+            }
+            long start = System.nanoTime();
+            CompletableFuture<T> result;
+            try {
+                result = call.get();
+            } catch (RuntimeException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+            return result.whenComplete((value, failure) -> {
+                try {
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                            ? failure.getCause() : failure;
+                    if (cause != null && recordAsFailure.test(cause)) {
+                        circuitBreaker.onError(System.nanoTime() - start);
+                    } else {
+                        circuitBreaker.onSuccess(System.nanoTime() - start);
+                    }
+                } finally {
+                    release();
+                }
+            });
+        });
+    }
+
+    public void run(Runnable call) {
+        call(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    private CompletableFuture<Boolean> acquireAsync() {
+        CompletableFuture<Boolean> waiter;
+        synchronized (waiters) {
+            if (bulkhead.tryAcquire()) {
+                return CompletableFuture.completedFuture(true);
+            }
+            if (maxWaitMs <= 0) {
+                return CompletableFuture.completedFuture(false);
+            }
+            waiter = new CompletableFuture<>();
+            waiters.addLast(waiter);
+        }
+        waiter.completeOnTimeout(false, maxWaitMs, TimeUnit.MILLISECONDS);
+        waiter.thenAccept(acquired -> {
+            if (!acquired) {
+                synchronized (waiters) {
+                    waiters.remove(waiter);
+                }
+            }
+        });
+        return waiter;
+    }
+
+    private void release() {
+        while (true) {
+            CompletableFuture<Boolean> waiter;
+            synchronized (waiters) {
+                waiter = waiters.pollFirst();
+                if (waiter == null) {
+                    bulkhead.release();
+                    return;
+                }
+            }
+            // Hand the slot over directly (outside the lock - the waiter starts its call);
+            // one that already timed out is skipped
+            if (waiter.complete(true)) {
+                return;
+            }
+        }
+    }
+
+    private DependencyUnavailableException rejected(String reason) {
+        onRejected.run();
+        System.err.println("[DependencyGuard] ⚠ " + name + " unavailable: " + reason);
+        return new DependencyUnavailableException(name, name + " is unavailable (" + reason + ")");
+    }
+}
@@ -0,0 +1,75 @@
+package com.tejas.metlife.claimprocessor.service.resilience;
+
+import com.tejas.metlife.claimprocessor.service.ratelimit.AzureOpenAiRateLimiters;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link DependencyGuard} per external dependency, configured under
+ * {@code claim.resilience.<dependency>.*} with {@code claim.resilience.default.*} as fallback.
+ *
+ * Exposes {@code claim.dependency.circuit.state} (0 closed, 1 open, 2 half-open),
+ * {@code claim.dependency.active} and the {@code claim.dependency.rejected} counter per dependency.
+ */
+@Component
+public class DependencyGuards {
+
+    public static final String BLOB_STORAGE = "blob-storage";
+    public static final String OCR = "ocr";
+    public static final String CLAIM_AGENT = "claim-agent";
+    public static final String WEB_SEARCH = "web-search";
+
+    private static final String PREFIX = "claim.resilience.";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DependencyGuard> guards = new ConcurrentHashMap<>();
+
+    public DependencyGuards(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public DependencyGuard get(String dependency) {
+        return guards.computeIfAbsent(dependency, this::create);
+    }
+
+    private DependencyGuard create(String dependency) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(
+                property(dependency, "window-size", Integer.class, 20),
+                property(dependency, "minimum-calls", Integer.class, 10),
+                property(dependency, "failure-rate-threshold", Double.class, 50.0),
+                property(dependency, "slow-call-ms", Long.class, 30_000L),
+                property(dependency, "slow-call-rate-threshold", Double.class, 80.0),
+                property(dependency, "open-duration-ms", Long.class, 30_000L),
+                property(dependency, "half-open-calls", Integer.class, 3),
+                System::nanoTime);
+
+        Counter rejected = Counter.builder("claim.dependency.rejected").tag("dependency", dependency).register(meterRegistry);
+        // Throttling is the rate limiter's business, not a sign the dependency is down
+        DependencyGuard guard = new DependencyGuard(dependency, circuitBreaker,
+                property(dependency, "max-concurrent-calls", Integer.class, 16),
+                property(dependency, "max-wait-ms", Long.class, 0L),
+                failure -> !AzureOpenAiRateLimiters.isThrottled(failure),
+                rejected::increment);
+
+        Gauge.builder("claim.dependency.circuit.state", guard, g -> g.getState().ordinal())
+                .tag("dependency", dependency)
+                .register(meterRegistry);
+        Gauge.builder("claim.dependency.active", guard, DependencyGuard::getActiveCalls)
+                .tag("dependency", dependency)
+                .register(meterRegistry);
+        return guard;
+    }
+
+    private <T> T property(String dependency, String key, Class<T> type, T defaultValue) {
+        T specific = environment.getProperty(PREFIX + dependency + "." + key, type);
+        return specific != null ? specific : environment.getProperty(PREFIX + "default." + key, type, defaultValue);
+    }
+}
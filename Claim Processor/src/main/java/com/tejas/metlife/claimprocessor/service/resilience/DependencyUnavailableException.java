@@ -0,0 +1,28 @@
+package com.tejas.metlife.claimprocessor.service.resilience;
+
+/**
+ * Thrown instead of calling a dependency whose circuit is open or whose bulkhead is full.
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    private final String dependency;
+
+    public DependencyUnavailableException(String dependency, String message) {
+        super(message);
+        this.dependency = dependency;
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+
+    /** The first DependencyUnavailableException in a cause chain, or null. */
+    public static DependencyUnavailableException find(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof DependencyUnavailableException unavailable) {
+                return unavailable;
+            }
+        }
+        return null;
+    }
+}
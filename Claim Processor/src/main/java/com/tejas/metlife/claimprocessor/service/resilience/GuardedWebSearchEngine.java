@@ -0,0 +1,25 @@
+package com.tejas.metlife.claimprocessor.service.resilience;
+
+import dev.langchain4j.web.search.WebSearchEngine;
+import dev.langchain4j.web.search.WebSearchRequest;
+import dev.langchain4j.web.search.WebSearchResults;
+
+/**
+ * {@link WebSearchEngine} behind the web search {@link DependencyGuard}. While the circuit is
+ * open the agent's tool call gets the failure message back instead of waiting on Google.
+ */
+public class GuardedWebSearchEngine implements WebSearchEngine {
+
+    private final WebSearchEngine delegate;
+    private final DependencyGuard guard;
+
+    public GuardedWebSearchEngine(WebSearchEngine delegate, DependencyGuard guard) {
+        this.delegate = delegate;
+        this.guard = guard;
+    }
+
+    @Override
+    public WebSearchResults search(WebSearchRequest webSearchRequest) {
+        return guard.call(() -> delegate.search(webSearchRequest));
+    }
+}
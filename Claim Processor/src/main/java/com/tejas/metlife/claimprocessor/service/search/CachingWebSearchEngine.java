@@ -0,0 +1,35 @@
+package com.tejas.metlife.claimprocessor.service.search;
+
+import dev.langchain4j.web.search.WebSearchEngine;
+import dev.langchain4j.web.search.WebSearchRequest;
+import dev.langchain4j.web.search.WebSearchResults;
+
+import java.util.Optional;
+
+/**
+ * {@link WebSearchEngine} that answers repeated searches from {@link WebSearchCache}.
+ * Wrap it around the guarded engine so cached lookups keep working while Google is down
+ * and do not count against the daily search quota. Failed searches are not cached.
+ */
+public class CachingWebSearchEngine implements WebSearchEngine {
+
+    private final WebSearchEngine delegate;
+    private final WebSearchCache cache;
+
+    public CachingWebSearchEngine(WebSearchEngine delegate, WebSearchCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public WebSearchResults search(WebSearchRequest webSearchRequest) {
+        Optional<WebSearchResults> cached = cache.get(webSearchRequest);
+        if (cached.isPresent()) {
+            System.out.println("[CachingWebSearchEngine] ✓ '" + webSearchRequest.searchTerms() + "' answered from cache");
+            return cached.get();
+        }
+        WebSearchResults results = delegate.search(webSearchRequest);
+        cache.put(webSearchRequest, results);
+        return results;
+    }
+}
@@ -0,0 +1,305 @@
+package com.tejas.metlife.claimprocessor.service.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tejas.metlife.claimprocessor.service.tool.ToolCallMemo;
+import dev.langchain4j.web.search.WebSearchInformationResult;
+import dev.langchain4j.web.search.WebSearchOrganicResult;
+import dev.langchain4j.web.search.WebSearchRequest;
+import dev.langchain4j.web.search.WebSearchResults;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache of web search results for the agent's hospital and police station checks.
+ *
+ * Requests are keyed by the normalized query (case, punctuation, word order and stop words
+ * ignored) plus result count and page, so "City Hospital, Pune" and "pune city hospital" share
+ * an entry. Empty results are cached too - "no such hospital" is the answer the agent needs.
+ * Entries expire after {@code ttl-hours}; an in-memory LRU sits in front of a local JSON
+ * directory that survives restarts and is capped at {@code disk-max-entries} files.
+ * Hits and misses are counted as {@code claim.websearch.cache} tagged by tier.
+ */
+@Component
+public class WebSearchCache {
+
+    private static final String SUFFIX = ".json";
+
+    /** On-disk form of one cached search. */
+    record StoredResult(String title, String url, String snippet, String content) { }
+
+    record StoredSearch(String query, long storedAtMillis, Long totalResults, List<StoredResult> results) { }
+
+    private final boolean enabled;
+    private final int memoryEntries;
+    private final long ttlMillis;
+    private final Path diskDir;
+    private final int diskMaxEntries;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, StoredSearch> memory;
+    private final AtomicInteger diskEntries = new AtomicInteger();
+    private final Object evictionLock = new Object();
+
+    private final Counter memoryHits;
+    private final Counter memoryMisses;
+    private final Counter diskHits;
+    private final Counter diskMisses;
+
+    public WebSearchCache(@Value("${claim.web-search.cache.enabled:true}") boolean enabled,
+                          @Value("${claim.web-search.cache.memory-entries:1000}") int memoryEntries,
+                          @Value("${claim.web-search.cache.ttl-hours:168}") long ttlHours,
+                          @Value("${claim.web-search.cache.disk-dir:${java.io.tmpdir}/claim-websearch-cache}") String diskDir,
+                          @Value("${claim.web-search.cache.disk-max-entries:20000}") int diskMaxEntries,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.memoryEntries = memoryEntries;
+        this.ttlMillis = TimeUnit.HOURS.toMillis(ttlHours);
+        this.diskDir = diskDir != null && !diskDir.isBlank() ? Paths.get(diskDir) : null;
+        this.diskMaxEntries = diskMaxEntries;
+        this.objectMapper = objectMapper;
+        this.memory = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredSearch> eldest) {
+                return size() > WebSearchCache.this.memoryEntries;
+            }
+        };
+
+        this.memoryHits = counter(meterRegistry, "memory", "hit");
+        this.memoryMisses = counter(meterRegistry, "memory", "miss");
+        this.diskHits = counter(meterRegistry, "disk", "hit");
+        this.diskMisses = counter(meterRegistry, "disk", "miss");
+        Gauge.builder("claim.websearch.cache.disk.entries", diskEntries, AtomicInteger::get).register(meterRegistry);
+
+        initDisk();
+    }
+
+    /**
+     * Cache key of a search request.
+     */
+    public static String key(WebSearchRequest request) {
+        String normalized = ToolCallMemo.normalizeQuery(request.searchTerms())
+                + "|" + request.maxResults() + "|" + request.startPage() + "|" + request.startIndex()
+                + "|" + request.language() + "|" + request.geoLocation();
+        return HexFormat.of().formatHex(sha256().digest(normalized.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public Optional<WebSearchResults> get(WebSearchRequest request) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = key(request);
+        StoredSearch stored;
+        synchronized (memory) {
+            stored = memory.get(key);
+            if (stored != null && expired(stored)) {
+                memory.remove(key);
+                stored = null;
+            }
+        }
+        if (stored != null) {
+            memoryHits.increment();
+            return Optional.of(toResults(stored));
+        }
+        memoryMisses.increment();
+
+        stored = readDisk(key);
+        if (stored != null) {
+            diskHits.increment();
+            synchronized (memory) {
+                memory.put(key, stored);
+            }
+            return Optional.of(toResults(stored));
+        }
+        if (diskDir != null) {
+            diskMisses.increment();
+        }
+        return Optional.empty();
+    }
+
+    public void put(WebSearchRequest request, WebSearchResults results) {
+        if (!enabled || results == null) {
+            return;
+        }
+        String key = key(request);
+        StoredSearch stored = fromResults(request.searchTerms(), results);
+        synchronized (memory) {
+            memory.put(key, stored);
+        }
+        writeDisk(key, stored);
+    }
+
+    private boolean expired(StoredSearch stored) {
+        return System.currentTimeMillis() - stored.storedAtMillis() >= ttlMillis;
+    }
+
+    // ---- Conversion ----
+
+    private static StoredSearch fromResults(String query, WebSearchResults results) {
+        List<StoredResult> stored = new ArrayList<>();
+        if (results.results() != null) {
+            for (WebSearchOrganicResult r : results.results()) {
+                stored.add(new StoredResult(r.title(), r.url() != null ? r.url().toString() : null, r.snippet(), r.content()));
+            }
+        }
+        Long total = results.searchInformation() != null ? results.searchInformation().totalResults() : null;
+        return new StoredSearch(query, System.currentTimeMillis(), total, stored);
+    }
+
+    private static WebSearchResults toResults(StoredSearch stored) {
+        List<WebSearchOrganicResult> results = new ArrayList<>();
+        for (StoredResult r : stored.results()) {
+            results.add(WebSearchOrganicResult.from(r.title(), r.url() != null ? URI.create(r.url()) : null, r.snippet(), r.content()));
+        }
+        Long total = stored.totalResults() != null ? stored.totalResults() : (long) results.size();
+        return WebSearchResults.from(WebSearchInformationResult.from(total), results);
+    }
+
+    // ---- Disk tier ----
+
+    private void initDisk() {
+        if (!enabled || diskDir == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(diskDir);
+            int count = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(diskDir, "*" + SUFFIX)) {
+                for (Path ignored : files) {
+                    count++;
+                }
+            }
+            diskEntries.set(count);
+            System.out.println("[WebSearchCache] ✓ Disk cache at " + diskDir + " (" + count + " searches)");
+        } catch (IOException e) {
+            System.err.println("[WebSearchCache] ⚠ Disk cache unavailable: " + e.getMessage());
+        }
+    }
+
+    private StoredSearch readDisk(String key) {
+        if (diskDir == null) {
+            return null;
+        }
+        Path file = diskDir.resolve(key + SUFFIX);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            StoredSearch stored = objectMapper.readValue(Files.readString(file, StandardCharsets.UTF_8), StoredSearch.class);
+            if (!expired(stored)) {
+                return stored;
+            }
+        } catch (IOException e) {
+            System.err.println("[WebSearchCache] ⚠ Unreadable cache entry " + file.getFileName() + ": " + e.getMessage());
+        }
+        delete(file);
+        return null;
+    }
+
+    private void writeDisk(String key, StoredSearch stored) {
+        if (diskDir == null) {
+            return;
+        }
+        Path file = diskDir.resolve(key + SUFFIX);
+        try {
+            boolean replacing = Files.exists(file);
+            Path tmp = Files.createTempFile(diskDir, key, ".tmp");
+            Files.writeString(tmp, objectMapper.writeValueAsString(stored), StandardCharsets.UTF_8);
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (!replacing && diskEntries.incrementAndGet() > diskMaxEntries) {
+                evictDisk();
+            }
+        } catch (IOException e) {
+            System.err.println("[WebSearchCache] ⚠ Could not write cache entry: " + e.getMessage());
+        }
+    }
+
+    /** Delete the oldest files until the directory is back under 90% of its cap. */
+    private void evictDisk() {
+        synchronized (evictionLock) {
+            if (diskEntries.get() <= diskMaxEntries) {
+                return;
+            }
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(diskDir, "*" + SUFFIX)) {
+                stream.forEach(files::add);
+            } catch (IOException e) {
+                System.err.println("[WebSearchCache] ⚠ Disk eviction failed: " + e.getMessage());
+                return;
+            }
+            files.sort(Comparator.comparingLong(WebSearchCache::lastModified));
+
+            int target = diskMaxEntries * 9 / 10;
+            int evicted = 0;
+            for (int i = 0; i < files.size() && diskEntries.get() > target; i++) {
+                if (delete(files.get(i))) {
+                    evicted++;
+                }
+            }
+            System.out.println("[WebSearchCache] Evicted " + evicted + " disk entries, " + diskEntries.get() + " remain");
+        }
+    }
+
+    private boolean delete(Path file) {
+        try {
+            if (Files.deleteIfExists(file)) {
+                diskEntries.decrementAndGet();
+                return true;
+            }
+        } catch (IOException ignored) {
+            // Removed concurrently or locked
+        }
+        return false;
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("claim.websearch.cache")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
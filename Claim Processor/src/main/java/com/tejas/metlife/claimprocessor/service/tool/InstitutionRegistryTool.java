@@ -0,0 +1,54 @@
+package com.tejas.metlife.claimprocessor.service.tool;
+
+import com.tejas.metlife.claimprocessor.model.Institution;
+import com.tejas.metlife.claimprocessor.service.institution.InstitutionRegistry;
+import dev.langchain4j.agent.tool.Tool;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * LangChain4j Tool: look up hospitals, clinics and police stations in the local {@link InstitutionRegistry}.
+ * The agent is told to call it before webSearch; repeated lookups within one claim are memoized.
+ */
+@Component
+public class InstitutionRegistryTool {
+
+    public static final String TOOL_NAME = "lookupInstitution";
+
+    private final InstitutionRegistry institutionRegistry;
+    private final ToolCallMemo toolCallMemo;
+
+    public InstitutionRegistryTool(InstitutionRegistry institutionRegistry, ToolCallMemo toolCallMemo) {
+        this.institutionRegistry = institutionRegistry;
+        this.toolCallMemo = toolCallMemo;
+    }
+
+    @Tool("Look up a hospital, clinic or police station by name (optionally with its city) in the registry of known institutions. Call this BEFORE webSearch; use webSearch only when it reports no verified match.")
+    public String lookupInstitution(String name) {
+        System.out.println("[InstitutionRegistryTool] Lookup: " + name);
+        return toolCallMemo.memoize(TOOL_NAME, ToolCallMemo.normalizeQuery(name), () -> lookup(name));
+    }
+
+    private String lookup(String name) {
+        List<InstitutionRegistry.Match> matches = institutionRegistry.lookup(name, 3);
+        if (matches.isEmpty()) {
+            return "NO MATCH for '" + name + "' in the institution registry. Verify it with webSearch.";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(matches.get(0).verified() ? "VERIFIED MATCH" : "PROVISIONAL MATCH ONLY - verify with webSearch")
+          .append(" for '").append(name).append("':\n");
+        for (InstitutionRegistry.Match match : matches) {
+            Institution institution = match.institution();
+            sb.append("- ").append(institution.getName())
+              .append(" (").append(institution.getType());
+            if (institution.getCity() != null && !institution.getCity().isEmpty()) {
+                sb.append(", ").append(institution.getCity());
+            }
+            sb.append(") similarity ").append(String.format("%.2f", match.score()))
+              .append(match.verified() ? ", verified" : ", confirmed by approved claims on " + institution.getConfirmations() + " policy(ies)")
+              .append("\n");
+        }
+        return sb.toString();
+    }
+}
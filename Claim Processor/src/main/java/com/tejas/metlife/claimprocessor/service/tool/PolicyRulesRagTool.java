@@ -6,20 +6,43 @@ import org.springframework.stereotype.Component;
 
 /**
  * LangChain4j Tool: Retrieve relevant policy rules using RAG.
+ * Repeated or reworded queries within one claim analysis are answered by {@link ToolCallMemo},
+ * including queries the pipeline already {@link #prefetch prefetched}.
  */
 @Component
 public class PolicyRulesRagTool {
 
+    public static final String TOOL_NAME = "retrievePolicyRules";
+
     private final PolicyRagService policyRagService;
+    private final ToolCallMemo toolCallMemo;
 
-    public PolicyRulesRagTool(PolicyRagService policyRagService) {
+    public PolicyRulesRagTool(PolicyRagService policyRagService, ToolCallMemo toolCallMemo) {
         this.policyRagService = policyRagService;
+        this.toolCallMemo = toolCallMemo;
     }
 
     @Tool("Retrieve relevant policy rules and constraints based on the query. Use this to understand what the policy covers, exclusions, required documents, and processing rules.")
     public String retrievePolicyRules(String query) {
         System.out.println("[PolicyRulesRagTool] Query: " + query);
-        
+        return toolCallMemo.memoize(TOOL_NAME, ToolCallMemo.normalizeQuery(query), () -> retrieve(query));
+    }
+
+    /**
+     * Rules for a query outside any tool scope, e.g. prefetched on another thread before the agent runs.
+     */
+    public String prefetch(String query) {
+        return retrieve(query);
+    }
+
+    /**
+     * Seed the current claim's tool scope with rules fetched by {@link #prefetch}.
+     */
+    public void prime(ToolCallMemo.Scope scope, String query, String rules) {
+        scope.prime(TOOL_NAME, ToolCallMemo.normalizeQuery(query), rules);
+    }
+
+    private String retrieve(String query) {
         if (!policyRagService.isRagEnabled()) {
             System.out.println("[PolicyRulesRagTool] ⚠ RAG is disabled - returning general guidelines");
             return """
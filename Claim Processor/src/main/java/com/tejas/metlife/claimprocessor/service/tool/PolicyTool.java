@@ -9,26 +9,58 @@ import java.util.Optional;
 
 /**
  * LangChain4j Tool: Fetch policy details from database.
+ * Repeated lookups within one claim analysis are answered by {@link ToolCallMemo}.
  */
 @Component
 public class PolicyTool {
 
+    public static final String TOOL_NAME = "getPolicyDetails";
+
     private final PolicyRepository policyRepository;
+    private final ToolCallMemo toolCallMemo;
 
-    public PolicyTool(PolicyRepository policyRepository) {
+    public PolicyTool(PolicyRepository policyRepository, ToolCallMemo toolCallMemo) {
         this.policyRepository = policyRepository;
+        this.toolCallMemo = toolCallMemo;
     }
 
     @Tool("Fetch policy details by policy number. Returns policy rules and coverage information.")
     public String getPolicyDetails(String policyNumber) {
+        return toolCallMemo.memoize(TOOL_NAME, ToolCallMemo.normalizeId(policyNumber), () -> lookup(policyNumber));
+    }
+
+    /**
+     * Seed the current claim's tool scope with a policy the pipeline already loaded.
+     */
+    public void prime(ToolCallMemo.Scope scope, Policy policy) {
+        scope.prime(TOOL_NAME, ToolCallMemo.normalizeId(policy.getPolicyNumber()), describe(policy));
+    }
+
+    /**
+     * The policy as {@link #getPolicyDetails} returns it, for the service's own use: read from the
+     * scope or looked up and primed into it, without counting as one of the agent's tool calls.
+     */
+    public String details(ToolCallMemo.Scope scope, String policyNumber) {
+        String normalizedId = ToolCallMemo.normalizeId(policyNumber);
+        String details = scope.peek(TOOL_NAME, normalizedId);
+        if (details == null) {
+            details = lookup(policyNumber);
+            scope.prime(TOOL_NAME, normalizedId, details);
+        }
+        return details;
+    }
+
+    private String lookup(String policyNumber) {
         Optional<Policy> opt = policyRepository.findByPolicyNumber(policyNumber);
         
         if (opt.isEmpty()) {
             return "Policy not found for number: " + policyNumber;
         }
         
-        Policy policy = opt.get();
-        
+        return describe(opt.get());
+    }
+
+    static String describe(Policy policy) {
         return String.format(
             """
             Policy Number: %s
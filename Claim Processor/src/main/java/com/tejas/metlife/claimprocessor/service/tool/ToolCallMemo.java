@@ -0,0 +1,228 @@
+package com.tejas.metlife.claimprocessor.service.tool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes agent tool results for the duration of one claim analysis.
+ *
+ * {@link #open} starts a scope on the current thread; while it is open, tool calls with the
+ * same tool and normalized arguments are answered from the scope instead of hitting SQL or
+ * the embedding model again, and results the pipeline already holds can be {@link Scope#prime primed}.
+ * LangChain4j runs a blocking agent's tools on the thread that called it, so a thread-bound scope
+ * covers one {@code analyze} call. A streaming agent runs them on the model's callback thread;
+ * {@link #runIn} carries the caller's scope over to it, so a scope's maps and counts are thread-safe.
+ * Once closed a scope no longer memoizes - a stream abandoned after a timeout runs its remaining
+ * tools uncached. Other threads simply run tools uncached.
+ *
+ * Calls are counted as {@code claim.agent.tool.calls} (tagged tool, result=hit/miss), executed
+ * calls are timed as {@code claim.agent.tool}, and the number of calls per claim is recorded as
+ * {@code claim.agent.tool.calls.per.claim} when the scope closes.
+ */
+@Component
+public class ToolCallMemo {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "for", "in", "is", "of", "on", "or", "the", "to", "what", "which", "with");
+
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+    private final MeterRegistry meterRegistry;
+
+    public ToolCallMemo(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Per-tool counts of one scope. */
+    public static final class ToolStats {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger hits = new AtomicInteger();
+        private final AtomicLong nanos = new AtomicLong();
+
+        public int getCalls() {
+            return calls.get();
+        }
+
+        public int getHits() {
+            return hits.get();
+        }
+
+        public long getNanos() {
+            return nanos.get();
+        }
+    }
+
+    /**
+     * Tool results of one claim analysis; close it on the thread that opened it.
+     * Tools may also record into it from a model callback thread, see {@link #runIn}.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final String label;
+        private final Scope previous;
+        private final Map<String, String> results = new ConcurrentHashMap<>();
+        // Sorted by tool name so the closing summary reads the same for every claim
+        private final Map<String, ToolStats> stats = new ConcurrentSkipListMap<>();
+        private volatile boolean closed;
+
+        private Scope(String label, Scope previous) {
+            this.label = label;
+            this.previous = previous;
+        }
+
+        /** Seed a result the caller already has, e.g. the policy loaded by the policy gate. */
+        public void prime(String tool, String normalizedArgs, String result) {
+            if (result != null) {
+                results.put(tool + "|" + normalizedArgs, result);
+            }
+        }
+
+        /** A result already held by the scope, read without counting it as a tool call; null if none. */
+        public String peek(String tool, String normalizedArgs) {
+            return results.get(tool + "|" + normalizedArgs);
+        }
+
+        public Map<String, ToolStats> getStats() {
+            return stats;
+        }
+
+        /** True once the claim analysis is over; late tool calls then run uncached. */
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            current.set(previous);
+            if (previous == null) {
+                current.remove();
+            }
+            if (stats.isEmpty()) {
+                return;
+            }
+            StringBuilder summary = new StringBuilder();
+            stats.forEach((tool, s) -> {
+                DistributionSummary.builder("claim.agent.tool.calls.per.claim").tag("tool", tool)
+                        .register(meterRegistry).record(s.getCalls());
+                summary.append(summary.length() > 0 ? "; " : "")
+                        .append(tool).append(": ").append(s.getCalls()).append(" call(s), ")
+                        .append(s.getHits()).append(" memoized, ")
+                        .append(TimeUnit.NANOSECONDS.toMillis(s.getNanos())).append(" ms");
+            });
+            System.out.println("[ToolCallMemo] " + label + " - " + summary);
+        }
+    }
+
+    /**
+     * Start memoizing tool calls on this thread. Scopes nest; closing restores the outer one.
+     */
+    public Scope open(String label) {
+        Scope scope = new Scope(label, current.get());
+        current.set(scope);
+        return scope;
+    }
+
+    /** The scope open on this thread, or null. */
+    public Scope current() {
+        return current.get();
+    }
+
+    /**
+     * Run {@code action} on this thread with {@code scope} open, restoring the thread's own scope
+     * afterwards; with a null or closed scope the action just runs. Lets a model callback thread
+     * continue a claim's analysis under that claim's scope.
+     */
+    public void runIn(Scope scope, Runnable action) {
+        if (scope == null || scope.closed) {
+            action.run();
+            return;
+        }
+        Scope previous = current.get();
+        current.set(scope);
+        try {
+            action.run();
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Return the memoized result for this tool and arguments, or run {@code call} and remember it.
+     * Outside an open scope the call always runs.
+     */
+    public String memoize(String tool, String normalizedArgs, Supplier<String> call) {
+        Scope scope = current.get();
+        if (scope != null && scope.closed) {
+            scope = null;
+        }
+        ToolStats stats = null;
+        if (scope != null) {
+            stats = scope.stats.computeIfAbsent(tool, t -> new ToolStats());
+            stats.calls.incrementAndGet();
+            String cached = scope.results.get(tool + "|" + normalizedArgs);
+            if (cached != null) {
+                stats.hits.incrementAndGet();
+                counter(tool, "hit").increment();
+                System.out.println("[ToolCallMemo] ✓ " + tool + "(" + normalizedArgs + ") answered from this claim's earlier call");
+                return cached;
+            }
+        }
+        counter(tool, "miss").increment();
+
+        long start = System.nanoTime();
+        String result = call.get();
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("claim.agent.tool").tag("tool", tool).register(meterRegistry).record(elapsed, TimeUnit.NANOSECONDS);
+        if (scope != null) {
+            stats.nanos.addAndGet(elapsed);
+            if (result != null) {
+                scope.results.put(tool + "|" + normalizedArgs, result);
+            }
+        }
+        return result;
+    }
+
+    /** Identifier argument such as a policy number: trimmed, inner spaces removed, upper case. */
+    public static String normalizeId(String value) {
+        return value == null ? "" : value.replaceAll("\\s+", "").toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Free-text query: lower case, punctuation and common stop words dropped, remaining words
+     * de-duplicated and sorted, so "Suicide coverage rules?" and "rules for suicide coverage" match.
+     */
+    public static String normalizeQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        Set<String> words = new TreeSet<>();
+        for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return String.join(" ", words);
+    }
+
+    private Counter counter(String tool, String result) {
+        return Counter.builder("claim.agent.tool.calls").tag("tool", tool).tag("result", result).register(meterRegistry);
+    }
+}
@@ -0,0 +1,79 @@
+package com.tejas.metlife.claimprocessor.service.tool;
+
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+/**
+ * {@link StreamingChatLanguageModel} that delivers its callbacks inside the {@link ToolCallMemo}
+ * scope open when the call was made.
+ *
+ * A streaming agent executes the requested tools from {@code onComplete}, on the model's
+ * callback thread, and starts the follow-up call from there; running the callbacks in the
+ * caller's scope lets those tool calls - and every later round - be memoized like the
+ * blocking agent's. Once that scope is closed the claim's analysis is over (the caller gave
+ * up waiting), so the abandoned stream's tokens are dropped and its tool round is not run.
+ */
+public class ToolScopedStreamingChatModel implements StreamingChatLanguageModel {
+
+    private final StreamingChatLanguageModel delegate;
+    private final ToolCallMemo toolCallMemo;
+
+    public ToolScopedStreamingChatModel(StreamingChatLanguageModel delegate, ToolCallMemo toolCallMemo) {
+        this.delegate = delegate;
+        this.toolCallMemo = toolCallMemo;
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+        delegate.generate(messages, scoped(handler));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, List<ToolSpecification> toolSpecifications,
+                         StreamingResponseHandler<AiMessage> handler) {
+        delegate.generate(messages, toolSpecifications, scoped(handler));
+    }
+
+    @Override
+    public void generate(List<ChatMessage> messages, ToolSpecification toolSpecification,
+                         StreamingResponseHandler<AiMessage> handler) {
+        delegate.generate(messages, toolSpecification, scoped(handler));
+    }
+
+    private StreamingResponseHandler<AiMessage> scoped(StreamingResponseHandler<AiMessage> handler) {
+        ToolCallMemo.Scope scope = toolCallMemo.current();
+        if (scope == null) {
+            return handler;
+        }
+        return new StreamingResponseHandler<>() {
+            @Override
+            public void onNext(String token) {
+                if (!scope.isClosed()) {
+                    toolCallMemo.runIn(scope, () -> handler.onNext(token));
+                }
+            }
+
+            @Override
+            public void onComplete(Response<AiMessage> response) {
+                if (scope.isClosed()) {
+                    // Completing would execute the requested tools and start another model call
+                    handler.onError(new CancellationException("Claim analysis already finished - stream abandoned"));
+                    return;
+                }
+                toolCallMemo.runIn(scope, () -> handler.onComplete(response));
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                toolCallMemo.runIn(scope, () -> handler.onError(error));
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.tejas.metlife.claimprocessor.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaimReferenceGeneratorTest {
+
+    @Test
+    void referencesAreUniqueAcrossThreads() throws Exception {
+        ClaimReferenceGenerator generator = new ClaimReferenceGenerator(7, System::currentTimeMillis);
+        Set<String> refs = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    refs.add(generator.nextReference());
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(160_000, refs.size());
+    }
+
+    @Test
+    void referencesSortByTimeEvenWhenClockStandsStillOrStepsBack() {
+        AtomicLong now = new AtomicLong(ClaimReferenceGenerator.EPOCH_MILLIS + 1_000_000);
+        ClaimReferenceGenerator generator = new ClaimReferenceGenerator(1, now::get);
+
+        String previous = generator.nextReference();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                now.addAndGet(-500);
+            }
+            String next = generator.nextReference();
+            assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void differentNodesNeverCollide() {
+        AtomicLong now = new AtomicLong(ClaimReferenceGenerator.EPOCH_MILLIS + 42);
+        ClaimReferenceGenerator a = new ClaimReferenceGenerator(1, now::get);
+        ClaimReferenceGenerator b = new ClaimReferenceGenerator(2, now::get);
+        assertNotEquals(a.nextReference(), b.nextReference());
+        assertEquals(17, a.nextReference().length());
+    }
+}
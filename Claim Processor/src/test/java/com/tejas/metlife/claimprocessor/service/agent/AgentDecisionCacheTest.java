@@ -0,0 +1,87 @@
+package com.tejas.metlife.claimprocessor.service.agent;
+
+import com.tejas.metlife.claimprocessor.dto.AiDecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AgentDecisionCacheTest {
+
+    private static final String POLICY = "Policy Number: POL-1\nStatus: ACTIVE";
+    private static final String RULES = "coverage, exclusions, required documents and filing timeline for death by suicide";
+
+    private final AtomicLong now = new AtomicLong();
+
+    private AgentDecisionCache cache(int maxEntries) {
+        return new AgentDecisionCache(true, maxEntries, 1_000, now::get, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void keyIgnoresWhitespaceButNotContentOrContext() {
+        String key = AgentDecisionCache.key("gpt-4o", 0, POLICY, RULES, "CLAIM FORM:\n  John  Doe \n\n\nPolicy POL-1");
+
+        assertEquals(key, AgentDecisionCache.key("gpt-4o", 0, POLICY, RULES, "CLAIM FORM:\r\nJohn Doe\nPolicy POL-1\n"));
+        assertNotEquals(key, AgentDecisionCache.key("gpt-4o", 0, POLICY, RULES, "CLAIM FORM:\nJane Doe\nPolicy POL-1"));
+        assertNotEquals(key, AgentDecisionCache.key("gpt-4o", 1, POLICY, RULES, "CLAIM FORM:\nJohn Doe\nPolicy POL-1"));
+        assertNotEquals(key, AgentDecisionCache.key("gpt-4o-mini", 0, POLICY, RULES, "CLAIM FORM:\nJohn Doe\nPolicy POL-1"));
+        assertNotEquals(key, AgentDecisionCache.key("gpt-4o", 0, POLICY.replace("ACTIVE", "CLAIMED"), RULES,
+                "CLAIM FORM:\nJohn Doe\nPolicy POL-1"));
+        // Same documents, different claimed cause: the prefetched rules differ
+        assertNotEquals(key, AgentDecisionCache.key("gpt-4o", 0, POLICY, RULES.replace("suicide", "accident"),
+                "CLAIM FORM:\nJohn Doe\nPolicy POL-1"));
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        AgentDecisionCache cache = cache(10);
+        cache.put("k", "POL-1", new AiDecision("APPROVED", "ok"));
+
+        now.set(999);
+        assertEquals("APPROVED", cache.get("k").orElseThrow().getDecision());
+        now.set(1_000);
+        assertTrue(cache.get("k").isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        AgentDecisionCache cache = cache(2);
+        cache.put("a", "POL-1", new AiDecision("APPROVED", "a"));
+        cache.put("b", "POL-2", new AiDecision("REJECTED", "b"));
+        cache.get("a");
+        cache.put("c", "POL-3", new AiDecision("MANUAL_REVIEW", "c"));
+
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+    }
+
+    @Test
+    void invalidationDropsPolicyOrEverything() {
+        AgentDecisionCache cache = cache(10);
+        cache.put("a", "POL-1", new AiDecision("APPROVED", "a"));
+        cache.put("b", "POL-1", new AiDecision("APPROVED", "b"));
+        cache.put("c", "POL-2", new AiDecision("REJECTED", "c"));
+
+        cache.invalidatePolicy("POL-1");
+        assertEquals(1, cache.size());
+        assertTrue(cache.get("c").isPresent());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void cachedDecisionsAreCopies() {
+        AgentDecisionCache cache = cache(10);
+        cache.put("k", "POL-1", new AiDecision("APPROVED", "ok"));
+        cache.get("k").orElseThrow().setDecision("REJECTED");
+
+        assertEquals("APPROVED", cache.get("k").orElseThrow().getDecision());
+    }
+}
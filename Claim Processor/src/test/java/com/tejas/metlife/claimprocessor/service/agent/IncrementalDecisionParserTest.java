@@ -0,0 +1,69 @@
+package com.tejas.metlife.claimprocessor.service.agent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IncrementalDecisionParserTest {
+
+    private final List<String> decisions = new ArrayList<>();
+    private final List<String> reasons = new ArrayList<>();
+    private final IncrementalDecisionParser parser = new IncrementalDecisionParser(new DecisionStreamListener() {
+        @Override
+        public void onDecision(String decision) {
+            decisions.add(decision);
+        }
+
+        @Override
+        public void onReason(String partialReason) {
+            reasons.add(partialReason);
+        }
+    });
+
+    private void feedInChunks(String text, int size) {
+        for (int i = 0; i < text.length(); i += size) {
+            parser.feed(text.substring(i, Math.min(text.length(), i + size)));
+        }
+    }
+
+    @Test
+    void surfacesDecisionBeforeTheReasonIsComplete() {
+        parser.feed("```json\n{\"decision\": \"APP");
+        assertEquals(List.of(), decisions);
+        parser.feed("ROVED\", \"reason\": \"All documents ");
+        assertEquals(List.of("APPROVED"), decisions);
+        assertEquals("All documents ", reasons.get(reasons.size() - 1));
+
+        parser.feed("match.\"}\n```");
+        assertEquals("All documents match.", reasons.get(reasons.size() - 1));
+    }
+
+    @Test
+    void handlesEscapesAndArbitraryChunkBoundaries() {
+        feedInChunks("{\"reason\": \"Name \\\"R. Sharma\\\" on\\nall \\u0064ocs\", \"decision\":\"REJECTED\"}", 3);
+
+        assertEquals(List.of("REJECTED"), decisions);
+        assertEquals("Name \"R. Sharma\" on\nall docs", reasons.get(reasons.size() - 1));
+    }
+
+    @Test
+    void ignoresKeysInsideNestedValues() {
+        feedInChunks("{\"confidence\": 0.9, \"institutions\": [{\"name\": \"x]}\", \"decision\": \"FAKE\"}],"
+                + " \"decision\": \"MANUAL_REVIEW\"}", 5);
+
+        assertEquals(List.of("MANUAL_REVIEW"), decisions);
+        assertEquals("MANUAL_REVIEW", parser.getDecision());
+    }
+
+    @Test
+    void reportsNothingForNonJsonOutput() {
+        parser.feed("I could not decide on this claim.");
+
+        assertNull(parser.getDecision());
+        assertEquals(List.of(), reasons);
+    }
+}
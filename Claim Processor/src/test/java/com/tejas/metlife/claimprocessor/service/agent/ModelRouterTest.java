@@ -0,0 +1,75 @@
+package com.tejas.metlife.claimprocessor.service.agent;
+
+import com.tejas.metlife.claimprocessor.dto.AiDecision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ModelRouterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ModelRouter router = new ModelRouter(List.of(
+            new ModelRouter.Tier("triage-1", "gpt-4o-mini", (text, policy) -> ""),
+            new ModelRouter.Tier("primary", "gpt-4o", (text, policy) -> "")), 0.85, registry);
+
+    private final List<String> called = new ArrayList<>();
+
+    private Optional<AiDecision> route(Map<String, Optional<AiDecision>> answers) {
+        return router.route(tier -> {
+            called.add(tier.name());
+            Optional<AiDecision> answer = answers.get(tier.name());
+            if (answer == null) {
+                throw new IllegalStateException(tier.deployment() + " down");
+            }
+            return answer;
+        });
+    }
+
+    private double escalations(String reason) {
+        var counter = registry.find("claim.agent.escalations").tag("reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    void confidentTriageDecisionIsFinal() {
+        AiDecision decision = route(Map.of("triage-1", Optional.of(new AiDecision("APPROVED", "clean", 0.95)))).orElseThrow();
+
+        assertEquals("APPROVED", decision.getDecision());
+        assertEquals(List.of("triage-1"), called);
+    }
+
+    @Test
+    void lowConfidenceAndManualReviewEscalate() {
+        Optional<AiDecision> primary = Optional.of(new AiDecision("REJECTED", "mismatch", 0.9));
+
+        route(Map.of("triage-1", Optional.of(new AiDecision("APPROVED", "looks fine", 0.6)), "primary", primary));
+        route(Map.of("triage-1", Optional.of(new AiDecision("MANUAL_REVIEW", "unsure", 0.99)), "primary", primary));
+        AiDecision decision = route(Map.of("triage-1", Optional.of(new AiDecision("APPROVED", "no confidence")), "primary", primary))
+                .orElseThrow();
+
+        assertEquals("REJECTED", decision.getDecision());
+        assertEquals(List.of("triage-1", "primary", "triage-1", "primary", "triage-1", "primary"), called);
+        assertEquals(2, escalations("low-confidence"));
+        assertEquals(1, escalations("manual-review"));
+    }
+
+    @Test
+    void triageFailureEscalatesButPrimaryFailurePropagates() {
+        AiDecision decision = route(Map.of("triage-1", Optional.empty(), "primary",
+                Optional.of(new AiDecision("MANUAL_REVIEW", "needs human", 0.4)))).orElseThrow();
+        assertEquals("MANUAL_REVIEW", decision.getDecision());
+
+        route(Map.of("primary", Optional.of(new AiDecision("APPROVED", "ok", 0.9))));
+        assertEquals(1, escalations("unparseable"));
+        assertEquals(1, escalations("error"));
+
+        assertThrows(IllegalStateException.class, () -> route(Map.of()));
+    }
+}
@@ -0,0 +1,79 @@
+package com.tejas.metlife.claimprocessor.service.coverage;
+
+import com.tejas.metlife.claimprocessor.model.Policy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoverageRulesEngineTest {
+
+    private static final LocalDate ISSUED = LocalDate.of(2024, 3, 1);
+
+    private final CoverageRulesEngine engine = new CoverageRulesEngine(new SimpleMeterRegistry());
+
+    private static Policy policy() {
+        Policy policy = new Policy();
+        policy.setPolicyNumber("POL-1");
+        policy.setIssueDate(ISSUED);
+        policy.setMaturityDate(ISSUED.plusYears(20));
+        policy.setSuicideCoverageAfterYears(2);
+        return policy;
+    }
+
+    private String rule(Policy policy, String cause, LocalDate claimDate) {
+        return engine.evaluate(policy, cause, claimDate).map(CoverageRulesEngine.Verdict::rule).orElse(null);
+    }
+
+    @Test
+    void classifiesOnlyFormValues() {
+        assertEquals(CauseOfDeath.ACCIDENT, CauseOfDeath.classify("Accident"));
+        assertEquals(CauseOfDeath.SUICIDE, CauseOfDeath.classify(" suicide "));
+        // Free text is left to the agent, however suggestive
+        assertEquals(CauseOfDeath.UNKNOWN, CauseOfDeath.classify("Cardiac arrest"));
+        assertEquals(CauseOfDeath.UNKNOWN, CauseOfDeath.classify("unnatural death"));
+        assertEquals(CauseOfDeath.UNKNOWN, CauseOfDeath.classify("not suicide"));
+        assertEquals(CauseOfDeath.UNKNOWN, CauseOfDeath.classify(null));
+    }
+
+    @Test
+    void freeTextCausesAreNeverHardRejected() {
+        Policy policy = policy();
+        policy.setCoversNaturalDeath(false);
+        policy.setCoversAccident(false);
+
+        assertTrue(engine.evaluate(policy, "unnatural death", ISSUED.plusYears(5)).isEmpty());
+        assertTrue(engine.evaluate(policy, "non-accidental injury", ISSUED.plusYears(5)).isEmpty());
+        assertTrue(engine.evaluate(policy(), "not suicide", ISSUED.plusDays(30)).isEmpty());
+        assertTrue(engine.evaluate(policy(), "suicide ruled out", ISSUED.plusDays(30)).isEmpty());
+    }
+
+    @Test
+    void suicideIsRejectedOnlyInsideTheExclusionPeriod() {
+        assertEquals("suicide-exclusion", rule(policy(), "Suicide", ISSUED.plusYears(2).minusDays(1)));
+        assertTrue(engine.evaluate(policy(), "Suicide", ISSUED.plusYears(2)).isEmpty());
+    }
+
+    @Test
+    void uncoveredCauseIsRejected() {
+        Policy policy = policy();
+        policy.setCoversAccident(false);
+
+        assertEquals("cause-not-covered", rule(policy, "Accident", ISSUED.plusYears(5)));
+        assertTrue(engine.evaluate(policy, "Disease", ISSUED.plusYears(5)).isEmpty());
+        assertTrue(engine.evaluate(policy, "unclear circumstances", ISSUED.plusYears(5)).isEmpty());
+    }
+
+    @Test
+    void claimsFiledAfterMaturityAreLeftToTheAgent() {
+        LocalDate maturity = ISSUED.plusYears(20);
+
+        // The death may predate maturity and simply have been reported late
+        assertTrue(engine.evaluate(policy(), "Natural", maturity.plusDays(30)).isEmpty());
+        assertTrue(engine.evaluate(policy(), "Natural", maturity.plusYears(1)).isEmpty());
+        assertEquals("not-in-force", rule(policy(), "Natural", ISSUED.minusDays(1)));
+    }
+}
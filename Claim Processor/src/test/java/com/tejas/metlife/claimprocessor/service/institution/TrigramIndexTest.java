@@ -0,0 +1,53 @@
+package com.tejas.metlife.claimprocessor.service.institution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+    private static TrigramIndex index() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(1, "Ruby Hall Clinic Pune");
+        index.add(2, "Jehangir Hospital Pune");
+        index.add(3, "KEM Hospital Mumbai");
+        index.add(4, "Shivajinagar Police Station Pune");
+        return index;
+    }
+
+    @Test
+    void normalizesCasePunctuationAndAbbreviations() {
+        assertEquals("kem hospital mumbai", TrigramIndex.normalize("KEM  Hosp., Mumbai"));
+        assertEquals("shivajinagar police station", TrigramIndex.normalize("Shivajinagar P.S."));
+        assertEquals("st john and mary", TrigramIndex.normalize("St. John & Mary"));
+    }
+
+    @Test
+    void findsMisspelledAndAbbreviatedNames() {
+        TrigramIndex index = index();
+
+        assertEquals(2, index.search("Jehangir Hosp, Pune", 3, 0.6).get(0).id());
+        assertEquals(1, index.search("Rubi Hall Clinic, Pune", 3, 0.6).get(0).id());
+        assertEquals(4, index.search("Shivaji nagar P.S. Pune", 3, 0.6).get(0).id());
+    }
+
+    @Test
+    void unknownNamesScoreBelowThreshold() {
+        TrigramIndex index = index();
+
+        assertTrue(index.search("Sunrise Multispeciality Hospital Nagpur", 3, 0.6).isEmpty());
+        assertTrue(index.search("", 3, 0.0).isEmpty());
+    }
+
+    @Test
+    void resultsAreRankedAndLimited() {
+        List<TrigramIndex.Hit> hits = index().search("Hospital Pune", 2, 0.0);
+
+        assertEquals(2, hits.size());
+        assertEquals(2, hits.get(0).id());
+        assertTrue(hits.get(0).score() >= hits.get(1).score());
+    }
+}
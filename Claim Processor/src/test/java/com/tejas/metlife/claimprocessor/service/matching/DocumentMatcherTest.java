@@ -0,0 +1,81 @@
+package com.tejas.metlife.claimprocessor.service.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentMatcherTest {
+
+    @Test
+    void matchesDespiteOcrSpacingCaseAndPunctuation() {
+        DocumentMatcher matcher = DocumentMatcher.builder()
+                .pattern("policyNumber", "POL-2024-001")
+                .pattern("holderName", "Rahul Sharma")
+                .build();
+
+        Map<String, String> docs = new LinkedHashMap<>();
+        docs.put("ClaimForm", "Policy No: pol 2024 001\nName of insured: RAHUL  SHARMA.");
+        DocumentMatcher.MatchReport report = matcher.scanAll(docs);
+
+        assertTrue(report.isFound("policyNumber"));
+        assertTrue(report.isFound("holderName"));
+    }
+
+    @Test
+    void reportsWhichDocumentsContainEachKey() {
+        DocumentMatcher matcher = DocumentMatcher.builder()
+                .pattern("deceased", "Akash Patil")
+                .pattern("cause", "cardiac arrest")
+                .pattern("nominee", "Priya Patil")
+                .build();
+
+        Map<String, String> docs = new LinkedHashMap<>();
+        docs.put("ClaimForm", "Deceased: Akash Patil, nominee Priya Patil");
+        docs.put("DeathCertificate", "Name: AKASH PATIL  Cause: Cardiac-Arrest");
+        docs.put("DoctorReport", "patient suffered cardiac arrest");
+        DocumentMatcher.MatchReport report = matcher.scanAll(docs);
+
+        assertEquals(List.of("ClaimForm", "DeathCertificate"), report.sourcesOf("deceased"));
+        assertEquals(List.of("DeathCertificate", "DoctorReport"), report.sourcesOf("cause"));
+        assertEquals(List.of("ClaimForm"), report.sourcesOf("nominee"));
+    }
+
+    @Test
+    void overlappingPatternsUseFailureLinks() {
+        DocumentMatcher matcher = DocumentMatcher.builder()
+                .pattern("he", "he")
+                .pattern("she", "she")
+                .pattern("hers", "hers")
+                .pattern("abcd", "abcd")
+                .build();
+
+        DocumentMatcher.MatchReport report = matcher.scanAll(Map.of("doc", "ushers abcabcd"));
+
+        assertTrue(report.isFound("he"));
+        assertTrue(report.isFound("she"));
+        assertTrue(report.isFound("hers"));
+        assertTrue(report.isFound("abcd"));
+    }
+
+    @Test
+    void missingAndBlankPatternsAreNotFound() {
+        DocumentMatcher matcher = DocumentMatcher.builder()
+                .pattern("policyNumber", "POL-999")
+                .pattern("holderName", "  ")
+                .pattern("nominee", null)
+                .build();
+
+        DocumentMatcher.MatchReport report = matcher.scanAll(Map.of("doc", "POL-998 and POL-99"));
+
+        assertFalse(report.isFound("policyNumber"));
+        assertFalse(report.isFound("holderName"));
+        assertFalse(report.isFound("nominee"));
+        assertEquals(List.of("policyNumber", "holderName", "nominee"), matcher.keys());
+    }
+}
@@ -0,0 +1,43 @@
+package com.tejas.metlife.claimprocessor.service.ocr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BatchOcrContractTest {
+
+    private static final List<String> LABELS = List.of("ClaimForm", "DeathCertificate");
+
+    @Test
+    void splitsLabeledSections() {
+        String response = "<<<DOC:ClaimForm>>>\nPolicy No: POL-1\nName: A\n"
+                + "<<<DOC:DeathCertificate>>>\nCause: cardiac arrest\n<<<END>>>\n";
+
+        Map<String, String> texts = BatchOcrContract.parse(response, LABELS);
+
+        assertEquals("Policy No: POL-1\nName: A", texts.get("ClaimForm"));
+        assertEquals("Cause: cardiac arrest", texts.get("DeathCertificate"));
+    }
+
+    @Test
+    void acceptsSectionsInAnyOrder() {
+        String response = "<<<DOC:DeathCertificate>>>\nB\n<<<DOC:ClaimForm>>>\nA\n<<<END>>>";
+
+        Map<String, String> texts = BatchOcrContract.parse(response, LABELS);
+
+        assertEquals("A", texts.get("ClaimForm"));
+        assertEquals("B", texts.get("DeathCertificate"));
+    }
+
+    @Test
+    void rejectsMissingDuplicateOrUnknownLabels() {
+        assertNull(BatchOcrContract.parse("<<<DOC:ClaimForm>>>\nA\n<<<END>>>", LABELS));
+        assertNull(BatchOcrContract.parse("<<<DOC:ClaimForm>>>\nA\n<<<DOC:ClaimForm>>>\nB\n<<<END>>>", LABELS));
+        assertNull(BatchOcrContract.parse("<<<DOC:ClaimForm>>>\nA\n<<<DOC:Other>>>\nB\n<<<END>>>", LABELS));
+        assertNull(BatchOcrContract.parse("Sorry, I cannot read these documents.", LABELS));
+    }
+}
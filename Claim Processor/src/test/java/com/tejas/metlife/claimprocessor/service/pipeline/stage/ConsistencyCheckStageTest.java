@@ -0,0 +1,51 @@
+package com.tejas.metlife.claimprocessor.service.pipeline.stage;
+
+import com.tejas.metlife.claimprocessor.dto.ClaimDocumentType;
+import com.tejas.metlife.claimprocessor.dto.ClaimSubmission;
+import com.tejas.metlife.claimprocessor.service.pipeline.ClaimContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConsistencyCheckStageTest {
+
+    private final ConsistencyCheckStage stage = new ConsistencyCheckStage();
+
+    private ClaimContext context(String claimFormText) {
+        ClaimContext context = new ClaimContext(ClaimSubmission.builder()
+                .policyNumber("POL-2024-001")
+                .policyHolderName("Rahul Sharma")
+                .build(), null);
+        if (claimFormText != null) {
+            context.putDocumentText(ClaimDocumentType.CLAIM_FORM, claimFormText);
+        }
+        return context;
+    }
+
+    @Test
+    void emptyOrMissingClaimFormTextGoesToManualReview() {
+        for (String text : new String[] {null, "", "   \n"}) {
+            ClaimContext context = context(text);
+            stage.execute(context);
+
+            assertEquals("MANUAL_REVIEW", context.getDecision().status());
+        }
+    }
+
+    @Test
+    void mismatchInReadableClaimFormIsRejected() {
+        ClaimContext context = context("Policy No: POL-2099-777\nName of insured: Someone Else");
+        stage.execute(context);
+
+        assertEquals("REJECTED", context.getDecision().status());
+    }
+
+    @Test
+    void matchingClaimFormPasses() {
+        ClaimContext context = context("Policy No: pol 2024 001\nName of insured: RAHUL SHARMA");
+        stage.execute(context);
+
+        assertNull(context.getDecision());
+    }
+}
@@ -0,0 +1,74 @@
+package com.tejas.metlife.claimprocessor.service.prompt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PromptCompactorTest {
+
+    private static final String LONG_LINE = "This certificate is issued under the Registration of Births and Deaths Act 1969";
+
+    private PromptCompactor compactor(int sectionMaxTokens) {
+        // One token per word keeps the arithmetic readable
+        return new PromptCompactor(true, text -> text.split("\\s+").length, sectionMaxTokens, 4, 8,
+                List.of(), List.of("(?i)verified by"), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void collapsesWhitespaceAndDropsBoilerplate() {
+        Map<String, String> sections = new LinkedHashMap<>();
+        sections.put("CLAIM FORM DOCUMENT", "  Name:   John   Doe \n\n\n\n-----------\nPage 1 of 2\nPolicy: POL-1\n");
+
+        String compacted = compactor(0).compact(sections).get("CLAIM FORM DOCUMENT");
+
+        assertEquals("Name: John Doe\n\nPolicy: POL-1", compacted);
+    }
+
+    @Test
+    void repeatedLinesAreKeptOnceButShortFactsStayInEveryDocument() {
+        Map<String, String> sections = new LinkedHashMap<>();
+        sections.put("CLAIM FORM DOCUMENT", "MetLife claim form for life cover\nName: John Doe\nMetLife claim form for life cover\n" + LONG_LINE);
+        sections.put("DEATH CERTIFICATE DOCUMENT", "Name: John Doe\n" + LONG_LINE + "\nVerified by: Tejas Avhad");
+        sections.put("POLICE REPORT DOCUMENT", "Verified by: Tejas Avhad");
+
+        Map<String, String> compacted = compactor(0).compact(sections);
+
+        assertEquals("MetLife claim form for life cover\nName: John Doe\n" + LONG_LINE, compacted.get("CLAIM FORM DOCUMENT"));
+        assertEquals("Name: John Doe\n[same line as in CLAIM FORM DOCUMENT]\nVerified by: Tejas Avhad",
+                compacted.get("DEATH CERTIFICATE DOCUMENT"));
+        assertEquals("Verified by: Tejas Avhad", compacted.get("POLICE REPORT DOCUMENT"));
+    }
+
+    @Test
+    void oversizedSectionKeepsHeadAndTail() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 1; i <= 100; i++) {
+            text.append("line ").append(i).append(" of the hospital report\n");
+        }
+        Map<String, String> sections = Map.of("DOCTOR/HOSPITAL REPORT DOCUMENT", text.toString());
+
+        String compacted = compactor(150).compact(sections).get("DOCTOR/HOSPITAL REPORT DOCUMENT");
+
+        assertTrue(compacted.startsWith("line 1 of the hospital report\n"));
+        assertTrue(compacted.endsWith("line 100 of the hospital report"));
+        assertTrue(compacted.contains("line(s) omitted to fit the token budget"));
+        assertFalse(compacted.contains("line 50 of"));
+        assertTrue(compacted.split("\\s+").length <= 150);
+    }
+
+    @Test
+    void disabledCompactorReturnsInputUnchanged() {
+        PromptCompactor disabled = new PromptCompactor(false, String::length, 10, 4, 8,
+                List.of(), List.of(), new SimpleMeterRegistry());
+        Map<String, String> sections = Map.of("CLAIM FORM DOCUMENT", "Page 1\n\n\nName:  X");
+
+        assertEquals(sections, disabled.compact(sections));
+    }
+}
@@ -0,0 +1,64 @@
+package com.tejas.metlife.claimprocessor.service.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    // 60 RPM / 6000 TPM with a 10 s burst: 10 requests or 1000 tokens up front
+    private TokenBucketRateLimiter limiter() {
+        return new TokenBucketRateLimiter("test", 60, 6000, 10, 0.5, 0.25, now::get);
+    }
+
+    @Test
+    void burstIsFreeThenCallersQueueInReservationOrder() {
+        TokenBucketRateLimiter limiter = limiter();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0L, limiter.reserve(10).delayNanos());
+        }
+        long first = limiter.reserve(10).delayNanos();
+        long second = limiter.reserve(10).delayNanos();
+
+        assertEquals(TimeUnit.SECONDS.toNanos(1), first, 1_000);
+        assertEquals(TimeUnit.SECONDS.toNanos(2), second, 1_000);
+    }
+
+    @Test
+    void tokenBudgetLimitsLargeRequests() {
+        TokenBucketRateLimiter limiter = limiter();
+        assertEquals(0L, limiter.reserve(1000).delayNanos());
+
+        // 500 more tokens at 100 tokens/s
+        assertEquals(TimeUnit.SECONDS.toNanos(5), limiter.reserve(500).delayNanos(), 1_000);
+    }
+
+    @Test
+    void settlingReturnsUnusedTokens() {
+        TokenBucketRateLimiter limiter = limiter();
+        limiter.reserve(1000).settle(200);
+
+        assertEquals(0L, limiter.reserve(800).delayNanos());
+    }
+
+    @Test
+    void throttlingPausesEveryoneAndRecoversGradually() {
+        TokenBucketRateLimiter limiter = limiter();
+        limiter.onThrottled(Duration.ofSeconds(3));
+
+        assertEquals(0.5, limiter.getRateFactor(), 1e-9);
+        assertTrue(limiter.reserve(1).delayNanos() >= TimeUnit.SECONDS.toNanos(3));
+
+        limiter.onSuccess();
+        limiter.onSuccess();
+        limiter.onSuccess();
+        assertEquals(1.0, limiter.getRateFactor(), 1e-9);
+    }
+}
@@ -0,0 +1,102 @@
+package com.tejas.metlife.claimprocessor.service.tool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolCallMemoTest {
+
+    private final ToolCallMemo memo = new ToolCallMemo(new SimpleMeterRegistry());
+
+    @Test
+    void repeatedCallsWithinAScopeRunOnce() {
+        AtomicInteger runs = new AtomicInteger();
+        try (ToolCallMemo.Scope scope = memo.open("claim-1")) {
+            for (int i = 0; i < 3; i++) {
+                assertEquals("rules", memo.memoize("retrievePolicyRules",
+                        ToolCallMemo.normalizeQuery(i == 0 ? "Suicide coverage rules?" : "rules for suicide coverage"),
+                        () -> {
+                            runs.incrementAndGet();
+                            return "rules";
+                        }));
+            }
+            assertEquals(1, runs.get());
+            assertEquals(3, scope.getStats().get("retrievePolicyRules").getCalls());
+            assertEquals(2, scope.getStats().get("retrievePolicyRules").getHits());
+        }
+    }
+
+    @Test
+    void outsideAScopeEveryCallRuns() {
+        AtomicInteger runs = new AtomicInteger();
+        memo.memoize("getPolicyDetails", "POL-1", () -> "p" + runs.incrementAndGet());
+        memo.memoize("getPolicyDetails", "POL-1", () -> "p" + runs.incrementAndGet());
+
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void primedResultsAreServedAndScopesDoNotLeak() {
+        try (ToolCallMemo.Scope scope = memo.open("claim-2")) {
+            scope.prime("getPolicyDetails", ToolCallMemo.normalizeId(" pol-7 "), "primed");
+            assertEquals("primed", memo.memoize("getPolicyDetails", ToolCallMemo.normalizeId("POL-7"), () -> "queried"));
+        }
+        assertEquals("queried", memo.memoize("getPolicyDetails", ToolCallMemo.normalizeId("POL-7"), () -> "queried"));
+    }
+
+    @Test
+    void runInCarriesAScopeToAnotherThread() throws Exception {
+        try (ToolCallMemo.Scope scope = memo.open("claim-3")) {
+            scope.prime("getPolicyDetails", "POL-9", "primed");
+            String[] seen = new String[2];
+            Thread callback = new Thread(() -> {
+                memo.runIn(scope, () -> seen[0] = memo.memoize("getPolicyDetails", "POL-9", () -> "queried"));
+                seen[1] = memo.memoize("getPolicyDetails", "POL-9", () -> "queried");
+            });
+            callback.start();
+            callback.join();
+
+            assertEquals("primed", seen[0]);
+            assertEquals("queried", seen[1]);
+            assertEquals(1, scope.getStats().get("getPolicyDetails").getHits());
+        }
+    }
+
+    @Test
+    void aClosedScopeNoLongerMemoizes() throws Exception {
+        ToolCallMemo.Scope scope = memo.open("claim-4");
+        scope.prime("getPolicyDetails", "POL-4", "primed");
+        scope.close();
+
+        String[] seen = new String[1];
+        Thread abandoned = new Thread(() ->
+                memo.runIn(scope, () -> seen[0] = memo.memoize("getPolicyDetails", "POL-4", () -> "queried")));
+        abandoned.start();
+        abandoned.join();
+
+        assertEquals("queried", seen[0]);
+        assertTrue(scope.getStats().isEmpty());
+    }
+
+    @Test
+    void peekingIsNotCountedAsAToolCall() {
+        try (ToolCallMemo.Scope scope = memo.open("claim-5")) {
+            scope.prime("getPolicyDetails", "POL-5", "primed");
+
+            assertEquals("primed", scope.peek("getPolicyDetails", "POL-5"));
+            assertTrue(scope.getStats().isEmpty());
+        }
+    }
+
+    @Test
+    void queryNormalizationIgnoresCaseOrderPunctuationAndStopWords() {
+        assertEquals("accidental death documents required",
+                ToolCallMemo.normalizeQuery("What documents are required for accidental death?"));
+        assertEquals(ToolCallMemo.normalizeQuery("Accidental death: required documents"),
+                ToolCallMemo.normalizeQuery("required documents for an accidental death"));
+    }
+}